@@ -32,6 +32,12 @@ public interface EventConstants {
   String SELECTOR_POST_TELLER = SELECTOR_NAME + " = '" + POST_TELLER + "'";
   String PUT_TELLER = "put-teller";
   String SELECTOR_PUT_TELLER = SELECTOR_NAME + " = '" + PUT_TELLER + "'";
+  /**
+   * Emitted once per teller roll-out with the batch result as payload; tellers created or changed by a roll-out
+   * do not emit {@link #POST_TELLER} or {@link #PUT_TELLER}.
+   */
+  String POST_TELLER_BATCH = "post-teller-batch";
+  String SELECTOR_POST_TELLER_BATCH = SELECTOR_NAME + " = '" + POST_TELLER_BATCH + "'";
   String OPEN_TELLER = "open-teller";
   String SELECTOR_OPEN_TELLER = SELECTOR_NAME + " = '" + OPEN_TELLER + "'";
   String CLOSE_TELLER = "close-teller";
@@ -51,6 +57,8 @@ public interface EventConstants {
   String SELECTOR_CONFIRM_TRANSACTION = SELECTOR_NAME + " = '" + CONFIRM_TRANSACTION + "'";
   String CANCEL_TRANSACTION = "cancel-transaction";
   String SELECTOR_CANCEL_TRANSACTION = SELECTOR_NAME + " = '" + CANCEL_TRANSACTION + "'";
+  String POST_TRANSACTION_BATCH = "post-transaction-batch";
+  String SELECTOR_POST_TRANSACTION_BATCH = SELECTOR_NAME + " = '" + POST_TRANSACTION_BATCH + "'";
   String AUTHENTICATE_TELLER = "authenticate-teller";
   String SELECTOR_AUTHENTICATE_TELLER = SELECTOR_NAME + " = '" + AUTHENTICATE_TELLER + "'";
 }
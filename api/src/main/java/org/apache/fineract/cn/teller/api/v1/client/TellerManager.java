@@ -18,12 +18,19 @@
  */
 package org.apache.fineract.cn.teller.api.v1.client;
 
+import org.apache.fineract.cn.teller.api.v1.domain.ChequeBatch;
 import org.apache.fineract.cn.teller.api.v1.domain.Teller;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerBalanceSheet;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerDenomination;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerEntry;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerManagementCommand;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionPage;
 import org.apache.fineract.cn.teller.api.v1.domain.UnlockDrawerCommand;
 import java.util.List;
 import javax.validation.Valid;
@@ -55,6 +62,18 @@ public interface TellerManager {
   })
   void create(@PathVariable("officeIdentifier") final String officeIdentifier, @RequestBody @Valid final Teller teller);
 
+  @RequestMapping(
+      value = "/offices/{officeIdentifier}/teller/batch",
+      method = RequestMethod.POST,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = TellerValidationException.class)
+  })
+  TellerBatchResult post(@PathVariable("officeIdentifier") final String officeIdentifier,
+                         @RequestBody @Valid final TellerBatch tellerBatch);
+
   @RequestMapping(
       value = "/offices/{officeIdentifier}/teller/{tellerCode}",
       method = RequestMethod.GET,
@@ -120,6 +139,30 @@ public interface TellerManager {
   TellerBalanceSheet getBalance(@PathVariable("officeIdentifier") final String officeIdentifier,
                                 @PathVariable("tellerCode") final String tellerCode);
 
+  @RequestMapping(
+      value = "/offices/{officeIdentifier}/teller/{tellerCode}/balance/totals",
+      method = RequestMethod.GET,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.ALL_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_FOUND, exception = TellerNotFoundException.class)
+  })
+  TellerBalanceSheet getBalanceTotals(@PathVariable("officeIdentifier") final String officeIdentifier,
+                                      @PathVariable("tellerCode") final String tellerCode);
+
+  @RequestMapping(
+      value = "/offices/{officeIdentifier}/teller/{tellerCode}/balance/entries",
+      method = RequestMethod.GET,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.ALL_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_FOUND, exception = TellerNotFoundException.class)
+  })
+  List<TellerEntry> fetchBalanceEntries(@PathVariable("officeIdentifier") final String officeIdentifier,
+                                        @PathVariable("tellerCode") final String tellerCode);
+
   @RequestMapping(
       value = "/teller/{tellerCode}/drawer",
       method = RequestMethod.POST,
@@ -161,6 +204,34 @@ public interface TellerManager {
   TellerTransactionCosts post(@PathVariable("tellerCode") final String tellerCode,
                               @RequestBody @Valid final TellerTransaction tellerTransaction);
 
+  @RequestMapping(
+      value = "/teller/{tellerCode}/transactions/batch",
+      method = RequestMethod.POST,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_FOUND, exception = TellerNotFoundException.class),
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = TellerTransactionValidationException.class),
+      @ThrowsException(status = HttpStatus.CONFLICT, exception = TransactionProcessingException.class)
+  })
+  TellerTransactionBatchResult post(@PathVariable("tellerCode") final String tellerCode,
+                                    @RequestBody @Valid final TellerTransactionBatch tellerTransactionBatch);
+
+  @RequestMapping(
+      value = "/teller/{tellerCode}/cheques/batch",
+      method = RequestMethod.POST,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_FOUND, exception = TellerNotFoundException.class),
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = TellerTransactionValidationException.class),
+      @ThrowsException(status = HttpStatus.CONFLICT, exception = TransactionProcessingException.class)
+  })
+  TellerTransactionBatchResult post(@PathVariable("tellerCode") final String tellerCode,
+                                    @RequestBody @Valid final ChequeBatch chequeBatch);
+
   @RequestMapping(
       value = "/teller/{tellerCode}/transactions/{identifier}",
       method = RequestMethod.POST,
@@ -188,6 +259,23 @@ public interface TellerManager {
   List<TellerTransaction> fetch(@PathVariable("tellerCode") final String tellerCode,
                                 @RequestParam(value = "status", required = false) final String status);
 
+  @RequestMapping(
+      value = "/teller/{tellerCode}/transactions",
+      method = RequestMethod.GET,
+      params = "pageSize",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.ALL_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_FOUND, exception = TellerNotFoundException.class),
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = TellerValidationException.class)
+  })
+  TellerTransactionPage fetch(@PathVariable("tellerCode") final String tellerCode,
+                              @RequestParam(value = "status", required = false) final String status,
+                              @RequestParam(value = "pageSize") final Integer pageSize,
+                              @RequestParam(value = "cursor", required = false) final String cursor,
+                              @RequestParam(value = "dateRange", required = false) final String dateRange);
+
   @RequestMapping(
       value = "/offices/{officeIdentifier}/teller/{tellerCode}",
       method = RequestMethod.DELETE,
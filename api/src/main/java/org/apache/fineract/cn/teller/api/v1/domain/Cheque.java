@@ -27,6 +27,14 @@ import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
 public class Cheque {
+
+  public enum ClearingState {
+    PENDING,
+    SUBMITTED,
+    CLEARED,
+    FAILED
+  }
+
   @Valid
   private MICR micr;
   @NotEmpty
@@ -42,6 +50,7 @@ public class Cheque {
   @NotEmpty
   private String dateIssued;
   private Boolean openCheque;
+  private String clearingState;
 
   public Cheque() {
     super();
@@ -102,4 +111,12 @@ public class Cheque {
   public void setOpenCheque(final Boolean openCheque) {
     this.openCheque = openCheque;
   }
+
+  public String getClearingState() {
+    return this.clearingState;
+  }
+
+  public void setClearingState(final String clearingState) {
+    this.clearingState = clearingState;
+  }
 }
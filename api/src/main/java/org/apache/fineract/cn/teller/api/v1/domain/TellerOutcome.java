@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.api.v1.domain;
+
+public class TellerOutcome {
+
+  public enum Outcome {
+    CREATED,
+    CHANGED,
+    REJECTED
+  }
+
+  private Integer index;
+  private String code;
+  private String outcome;
+  private String message;
+
+  public TellerOutcome() {
+    super();
+  }
+
+  public Integer getIndex() {
+    return this.index;
+  }
+
+  public void setIndex(final Integer index) {
+    this.index = index;
+  }
+
+  public String getCode() {
+    return this.code;
+  }
+
+  public void setCode(final String code) {
+    this.code = code;
+  }
+
+  public String getOutcome() {
+    return this.outcome;
+  }
+
+  public void setOutcome(final String outcome) {
+    this.outcome = outcome;
+  }
+
+  public String getMessage() {
+    return this.message;
+  }
+
+  public void setMessage(final String message) {
+    this.message = message;
+  }
+}
@@ -30,7 +30,9 @@ public class TellerTransaction {
   public enum State {
     PENDING,
     CANCELED,
-    CONFIRMED
+    CONFIRMING,
+    CONFIRMED,
+    FAILED
   }
 
   @ValidIdentifier(optional = true)
@@ -56,6 +58,7 @@ public class TellerTransaction {
   @DecimalMax(value = "9999999999.99999")
   private BigDecimal amount;
   private State state;
+  private String followUpError;
   @Valid
   private Cheque cheque;
 
@@ -151,6 +154,14 @@ public class TellerTransaction {
     this.state = State.valueOf(state);
   }
 
+  public String getFollowUpError() {
+    return this.followUpError;
+  }
+
+  public void setFollowUpError(final String followUpError) {
+    this.followUpError = followUpError;
+  }
+
   public Cheque getCheque() {
     return this.cheque;
   }
@@ -24,6 +24,7 @@ import org.apache.fineract.cn.teller.api.v1.domain.Cheque;
 import org.apache.fineract.cn.teller.api.v1.domain.MICR;
 import org.apache.fineract.cn.teller.api.v1.domain.Teller;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerBalanceSheet;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerEntry;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerManagementCommand;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
@@ -33,6 +34,7 @@ import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
@@ -91,6 +93,20 @@ public class TestTellerBalance extends AbstractTellerTest {
     Assert.assertTrue(BigDecimal.valueOf(150.00D).compareTo(tellerBalanceSheet.getCashDisbursedTotal()) == 0);
     Assert.assertTrue(BigDecimal.valueOf(500.00D).compareTo(tellerBalanceSheet.getChequesReceivedTotal()) == 0);
     Assert.assertTrue(BigDecimal.valueOf(454.00D).compareTo(tellerBalanceSheet.getCashOnHand()) == 0);
+
+    final TellerBalanceSheet tellerBalanceTotals =
+        super.testSubject.getBalanceTotals(officeIdentifier, randomTeller.getCode());
+    Assert.assertNull(tellerBalanceTotals.getCashEntries());
+    Assert.assertNull(tellerBalanceTotals.getChequeEntries());
+    Assert.assertTrue(BigDecimal.valueOf(604.00D).compareTo(tellerBalanceTotals.getCashReceivedTotal()) == 0);
+    Assert.assertTrue(BigDecimal.valueOf(150.00D).compareTo(tellerBalanceTotals.getCashDisbursedTotal()) == 0);
+    Assert.assertTrue(BigDecimal.valueOf(500.00D).compareTo(tellerBalanceTotals.getChequesReceivedTotal()) == 0);
+    Assert.assertTrue(BigDecimal.valueOf(454.00D).compareTo(tellerBalanceTotals.getCashOnHand()) == 0);
+
+    final List<TellerEntry> tellerEntries =
+        super.testSubject.fetchBalanceEntries(officeIdentifier, randomTeller.getCode());
+    Assert.assertEquals(6, tellerEntries.size());
+    Assert.assertEquals(TellerEntry.Type.CHEQUE.name(), tellerEntries.get(5).getType());
   }
 
   private void prepareCheque(final Teller teller) throws Exception {
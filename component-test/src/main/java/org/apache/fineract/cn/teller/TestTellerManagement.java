@@ -24,21 +24,42 @@ import org.apache.fineract.cn.teller.api.v1.client.TellerNotFoundException;
 import org.apache.fineract.cn.teller.api.v1.client.TellerValidationException;
 import org.apache.fineract.cn.teller.api.v1.domain.Teller;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerBalanceSheet;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerManagementCommand;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerOutcome;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
 import org.apache.fineract.cn.teller.util.TellerGenerator;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
+import org.apache.fineract.cn.lang.AutoTenantContext;
+import org.apache.fineract.cn.lang.TenantContextHolder;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 public class TestTellerManagement extends AbstractTellerTest {
 
+  @Autowired
+  private TellerRepository tellerRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
   public TestTellerManagement() {
     super();
   }
@@ -65,6 +86,54 @@ public class TestTellerManagement extends AbstractTellerTest {
     Assert.assertTrue(super.eventRecorder.wait(EventConstants.POST_TELLER, teller.getCode()));
   }
 
+  @Test
+  public void shouldPostTellerBatch() throws Exception {
+    final String officeIdentifier = RandomStringUtils.randomAlphabetic(32);
+    final Teller firstTeller = TellerGenerator.createRandomTeller();
+    final Teller secondTeller = TellerGenerator.createRandomTeller();
+    final Teller rejectedTeller = TellerGenerator.createRandomTeller();
+
+    Mockito.doAnswer(invocation -> true)
+        .when(super.organizationServiceSpy).officeExists(Matchers.eq(officeIdentifier));
+
+    Arrays.asList(firstTeller, secondTeller, rejectedTeller).forEach(teller -> {
+      Mockito.doAnswer(invocation -> Optional.of(new Account()))
+          .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getTellerAccountIdentifier()));
+      Mockito.doAnswer(invocation -> Optional.of(new Account()))
+          .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getChequesReceivableAccount()));
+      Mockito.doAnswer(invocation -> Optional.of(new Account()))
+          .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getCashOverShortAccount()));
+    });
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(firstTeller.getVaultAccountIdentifier()));
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(secondTeller.getVaultAccountIdentifier()));
+    Mockito.doAnswer(invocation -> Optional.empty())
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(rejectedTeller.getVaultAccountIdentifier()));
+
+    final TellerBatch tellerBatch = new TellerBatch();
+    tellerBatch.setTellers(Arrays.asList(firstTeller, secondTeller, rejectedTeller));
+
+    final TellerBatchResult tellerBatchResult = super.testSubject.post(officeIdentifier, tellerBatch);
+
+    final List<TellerOutcome> outcomes = tellerBatchResult.getOutcomes();
+    Assert.assertEquals(3, outcomes.size());
+    Assert.assertEquals(TellerOutcome.Outcome.CREATED.name(), outcomes.get(0).getOutcome());
+    Assert.assertEquals(TellerOutcome.Outcome.CREATED.name(), outcomes.get(1).getOutcome());
+    Assert.assertEquals(TellerOutcome.Outcome.REJECTED.name(), outcomes.get(2).getOutcome());
+    Assert.assertEquals(rejectedTeller.getCode(), outcomes.get(2).getCode());
+
+    final Teller createdTeller = super.testSubject.find(officeIdentifier, secondTeller.getCode());
+    Assert.assertEquals(secondTeller.getVaultAccountIdentifier(), createdTeller.getVaultAccountIdentifier());
+
+    firstTeller.setCashdrawLimit(firstTeller.getCashdrawLimit().add(BigDecimal.TEN));
+    final TellerBatch changeBatch = new TellerBatch();
+    changeBatch.setTellers(Arrays.asList(firstTeller));
+
+    Assert.assertEquals(TellerOutcome.Outcome.CHANGED.name(),
+        super.testSubject.post(officeIdentifier, changeBatch).getOutcomes().get(0).getOutcome());
+  }
+
   @Test(expected = TellerValidationException.class)
   public void shouldNotCreateTellerUnknownOffice() throws Exception {
     final String officeIdentifier = RandomStringUtils.randomAlphabetic(32);
@@ -413,6 +482,66 @@ public class TestTellerManagement extends AbstractTellerTest {
     Assert.assertEquals(command.getAssignedEmployeeIdentifier(), openedTeller.getAssignedEmployee());
   }
 
+  @Test
+  public void shouldOpenTellerChangedConcurrently() throws Exception {
+    final String officeIdentifier = RandomStringUtils.randomAlphabetic(32);
+    final Teller teller = TellerGenerator.createRandomTeller();
+
+    Mockito.doAnswer(invocation -> true)
+        .when(super.organizationServiceSpy).officeExists(Matchers.eq(officeIdentifier));
+
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getTellerAccountIdentifier()));
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getVaultAccountIdentifier()));
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getChequesReceivableAccount()));
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getCashOverShortAccount()));
+
+    super.testSubject.create(officeIdentifier, teller);
+
+    super.eventRecorder.wait(EventConstants.POST_TELLER, teller.getCode());
+
+    // the first precondition check of the open command sees the teller change under its feet
+    final AtomicInteger concurrentChanges = new AtomicInteger();
+    Mockito.doAnswer(invocation -> {
+      if (TransactionSynchronizationManager.isActualTransactionActive()
+          && concurrentChanges.getAndIncrement() == 0) {
+        final String tenant = TenantContextHolder.checkedGetIdentifier();
+        CompletableFuture.runAsync(() -> {
+          try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+            new TransactionTemplate(this.transactionManager).execute(status -> {
+              final TellerEntity tellerEntity = this.tellerRepository.findByIdentifier(teller.getCode()).get();
+              return this.tellerRepository.updateState(tellerEntity.getId(), tellerEntity.getState(),
+                  tellerEntity.getVersion(), tellerEntity.getState(), tellerEntity.getAssignedEmployeeIdentifier(),
+                  AbstractTellerTest.TEST_USER, LocalDateTime.now(Clock.systemUTC()));
+            });
+          }
+        }).join();
+      }
+      return true;
+    }).when(super.organizationServiceSpy).officeExists(Matchers.eq(officeIdentifier));
+
+    final TellerManagementCommand command = new TellerManagementCommand();
+    command.setAction(TellerManagementCommand.Action.OPEN.name());
+    command.setAdjustment(TellerManagementCommand.Adjustment.NONE.name());
+    command.setAssignedEmployeeIdentifier(RandomStringUtils.randomAlphanumeric(32));
+
+    Mockito.doAnswer(invocation -> true)
+        .when(super.organizationServiceSpy).employeeExists(Matchers.eq(command.getAssignedEmployeeIdentifier()));
+
+    super.testSubject.post(officeIdentifier, teller.getCode(), command);
+
+    Assert.assertTrue(super.eventRecorder.wait(EventConstants.OPEN_TELLER, teller.getCode()));
+    // changed once in between, then read again and checked again
+    Assert.assertEquals(2, concurrentChanges.get());
+
+    final Teller openedTeller = super.testSubject.find(officeIdentifier, teller.getCode());
+    Assert.assertEquals(Teller.State.OPEN.name(), openedTeller.getState());
+    Assert.assertEquals(command.getAssignedEmployeeIdentifier(), openedTeller.getAssignedEmployee());
+  }
+
   @Test
   public void shouldCloseTeller() throws Exception {
     final String officeIdentifier = RandomStringUtils.randomAlphabetic(32);
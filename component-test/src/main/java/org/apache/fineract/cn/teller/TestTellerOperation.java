@@ -25,12 +25,21 @@ import org.apache.fineract.cn.teller.api.v1.client.TellerTransactionValidationEx
 import org.apache.fineract.cn.teller.api.v1.client.TransactionProcessingException;
 import org.apache.fineract.cn.teller.api.v1.domain.Charge;
 import org.apache.fineract.cn.teller.api.v1.domain.Cheque;
+import org.apache.fineract.cn.teller.api.v1.domain.ChequeBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.ChequeBatchEntry;
 import org.apache.fineract.cn.teller.api.v1.domain.MICR;
 import org.apache.fineract.cn.teller.api.v1.domain.Teller;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerManagementCommand;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionOutcome;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionPage;
 import org.apache.fineract.cn.teller.api.v1.domain.UnlockDrawerCommand;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
+import org.apache.fineract.cn.teller.service.internal.service.TellerPasswordService;
 import org.apache.fineract.cn.teller.service.internal.service.helper.ChequeService;
 import org.apache.fineract.cn.teller.util.TellerGenerator;
 import java.math.BigDecimal;
@@ -38,23 +47,45 @@ import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
+import org.apache.fineract.cn.cheque.api.v1.domain.ChequeTransaction;
 import org.apache.fineract.cn.deposit.api.v1.definition.domain.ProductDefinition;
 import org.apache.fineract.cn.deposit.api.v1.instance.domain.ProductInstance;
+import org.apache.fineract.cn.crypto.HashGenerator;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Base64Utils;
 
 public class TestTellerOperation extends AbstractTellerTest {
 
   private static Teller tellerUnderTest = null;
   private final BigDecimal commonAmount = BigDecimal.valueOf(1234.56D);
 
+  @Autowired
+  private TellerRepository tellerRepository;
+
+  @Autowired
+  private TellerPasswordService tellerPasswordService;
+
+  @Autowired
+  private HashGenerator hashGenerator;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
   public TestTellerOperation() {
     super();
   }
@@ -324,6 +355,287 @@ public class TestTellerOperation extends AbstractTellerTest {
     super.testSubject.post(teller.getCode(), tellerTransaction);
   }
 
+  @Test
+  public void shouldKeepDepositConfirmedIfFollowUpRejected() throws Exception {
+    final Teller teller = this.prepareTeller();
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode());
+
+    final TellerTransaction tellerTransaction =  new TellerTransaction();
+    tellerTransaction.setTransactionType(ServiceConstants.TX_CASH_DEPOSIT);
+    tellerTransaction.setTransactionDate(DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC())));
+    tellerTransaction.setProductIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    tellerTransaction.setCustomerAccountIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    tellerTransaction.setCustomerIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    tellerTransaction.setClerk(AbstractTellerTest.TEST_USER);
+    tellerTransaction.setAmount(commonAmount);
+
+    final Account account = new Account();
+    account.setState(Account.State.OPEN.name());
+    Mockito.doAnswer(invocation -> Optional.of(account))
+        .when(super.accountingServiceSpy).findAccount(tellerTransaction.getCustomerAccountIdentifier());
+    Mockito.doAnswer(invocation -> Collections.emptyList())
+        .when(super.depositAccountManagementServiceSpy).getCharges(Matchers.eq(tellerTransaction));
+    Mockito.doAnswer(invocation -> Collections.emptyList())
+        .when(super.depositAccountManagementServiceSpy).fetchProductInstances(tellerTransaction.getCustomerIdentifier());
+    // the journal entry gets booked, the product instance rejects the follow-up
+    Mockito.doThrow(new IllegalArgumentException("Product instance not found."))
+        .when(super.depositAccountManagementServiceSpy)
+        .transactedProductInstance(tellerTransaction.getCustomerAccountIdentifier());
+
+    final TellerTransactionCosts tellerTransactionCosts = super.testSubject.post(teller.getCode(), tellerTransaction);
+
+    super.testSubject.confirm(teller.getCode(), tellerTransactionCosts.getTellerTransactionIdentifier(),
+        "CONFIRM", null);
+
+    final TellerTransaction confirmedTransaction = this.awaitTransaction(teller.getCode(),
+        tellerTransactionCosts.getTellerTransactionIdentifier(), TellerTransaction.State.CONFIRMED,
+        transaction -> transaction.getFollowUpError() != null);
+    Assert.assertTrue(confirmedTransaction.getFollowUpError().startsWith("TRANSACTED_PRODUCT_INSTANCE"));
+    Assert.assertTrue(
+        super.testSubject.fetch(teller.getCode(), TellerTransaction.State.FAILED.name()).stream()
+            .noneMatch(transaction ->
+                transaction.getIdentifier().equals(tellerTransactionCosts.getTellerTransactionIdentifier()))
+    );
+  }
+
+  @Test
+  public void shouldPostTransactionBatch() throws Exception {
+    final Teller teller = this.prepareTeller();
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode());
+
+    final Account openAccount = new Account();
+    openAccount.setBalance(0.00D);
+    openAccount.setState(Account.State.OPEN.name());
+    final Account closedAccount = new Account();
+    closedAccount.setState(Account.State.CLOSED.name());
+
+    final TellerTransaction firstDeposit = this.prepareBatchDeposit(openAccount);
+    final TellerTransaction secondDeposit = this.prepareBatchDeposit(openAccount);
+    final TellerTransaction rejectedDeposit = this.prepareBatchDeposit(closedAccount);
+
+    final TellerTransactionBatch tellerTransactionBatch = new TellerTransactionBatch();
+    tellerTransactionBatch.setTellerTransactions(Lists.newArrayList(firstDeposit, secondDeposit, rejectedDeposit));
+    tellerTransactionBatch.setConfirm(Boolean.TRUE);
+
+    final TellerTransactionBatchResult tellerTransactionBatchResult =
+        super.testSubject.post(teller.getCode(), tellerTransactionBatch);
+
+    final List<TellerTransactionOutcome> outcomes = tellerTransactionBatchResult.getOutcomes();
+    Assert.assertEquals(3, outcomes.size());
+    for (int i = 0; i < 2; i++) {
+      Assert.assertEquals(Integer.valueOf(i), outcomes.get(i).getIndex());
+      Assert.assertNotEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(i).getOutcome());
+      Assert.assertNotNull(outcomes.get(i).getTellerTransactionCosts().getTellerTransactionIdentifier());
+    }
+    Assert.assertEquals(Integer.valueOf(2), outcomes.get(2).getIndex());
+    Assert.assertEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(2).getOutcome());
+    Assert.assertNull(outcomes.get(2).getTellerTransactionCosts());
+  }
+
+  @Test
+  public void shouldPostChequeBatch() throws Exception {
+    final Teller teller = this.prepareTeller();
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode());
+
+    final ChequeBatchEntry validCheque = this.prepareBatchCheque("o00000012o t08154711t 4712o");
+    final ChequeBatchEntry unreadableCheque = this.prepareBatchCheque("t0815t4712x");
+
+    Mockito
+        .doAnswer(invocation -> {
+          final Account mockedAccount = new Account();
+          mockedAccount.setBalance(2000.00D);
+          mockedAccount.setState(Account.State.OPEN.name());
+          return Optional.of(mockedAccount);
+        })
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq("4712"));
+
+    final ChequeBatch chequeBatch = new ChequeBatch();
+    chequeBatch.setCheques(Lists.newArrayList(validCheque, unreadableCheque));
+
+    final TellerTransactionBatchResult tellerTransactionBatchResult =
+        super.testSubject.post(teller.getCode(), chequeBatch);
+
+    final List<TellerTransactionOutcome> outcomes = tellerTransactionBatchResult.getOutcomes();
+    Assert.assertEquals(2, outcomes.size());
+    Assert.assertEquals(Integer.valueOf(0), outcomes.get(0).getIndex());
+    Assert.assertNotEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(0).getOutcome());
+    Assert.assertNotNull(outcomes.get(0).getTellerTransactionCosts().getTellerTransactionIdentifier());
+    Assert.assertEquals(Integer.valueOf(1), outcomes.get(1).getIndex());
+    Assert.assertEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(1).getOutcome());
+    Assert.assertNull(outcomes.get(1).getTellerTransactionCosts());
+  }
+
+  @Test
+  public void shouldReadChequeBatchMicrLineVariants() throws Exception {
+    final Teller teller = this.prepareTeller();
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode());
+
+    final List<ChequeBatchEntry> cheques = Lists.newArrayList(
+        // E-13B, cheque number in the auxiliary on-us field
+        this.prepareBatchCheque("\u2448000021\u2448 \u244608154711\u2446 4721\u2448"),
+        // E-13B, cheque number trailing the account number's on-us symbol
+        this.prepareBatchCheque("\u244608154711\u2446 47-22\u2448 000022"),
+        // E-13B with amount field
+        this.prepareBatchCheque("t08154711t 4723o 000023 $0000024680$"),
+        // CMC-7
+        this.prepareBatchCheque("<00000024<08154711:4724>"),
+        // cheque number too long
+        this.prepareBatchCheque("o000000025o t08154711t 4725o"),
+        // account number too long
+        this.prepareBatchCheque("o00000026o t08154711t 12345678901234567890123456789012345o"),
+        // amount field in front of the account number
+        this.prepareBatchCheque("o00000027o t08154711t $0000024680$ 4727o")
+    );
+
+    final ChequeBatch chequeBatch = new ChequeBatch();
+    chequeBatch.setCheques(cheques);
+
+    final List<TellerTransactionOutcome> outcomes =
+        super.testSubject.post(teller.getCode(), chequeBatch).getOutcomes();
+    Assert.assertEquals(cheques.size(), outcomes.size());
+    for (int i = 0; i < 4; i++) {
+      Assert.assertNotEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(i).getOutcome());
+    }
+    for (int i = 4; i < cheques.size(); i++) {
+      Assert.assertEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(i).getOutcome());
+    }
+  }
+
+  @Test
+  public void shouldNotPostChequeBatchExceedingDraweeBalance() throws Exception {
+    final Teller teller = this.prepareTeller();
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode());
+
+    Mockito.doReturn(Boolean.TRUE).when(super.organizationServiceSpy).officeExists(Matchers.eq("08154712"));
+    Mockito
+        .doAnswer(invocation -> {
+          final Account mockedAccount = new Account();
+          mockedAccount.setBalance(300.00D);
+          mockedAccount.setState(Account.State.OPEN.name());
+          return Optional.of(mockedAccount);
+        })
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq("4730"));
+
+    final ChequeBatch chequeBatch = new ChequeBatch();
+    chequeBatch.setCheques(Lists.newArrayList(
+        this.prepareBatchCheque("o00000031o t08154712t 4730o"),
+        this.prepareBatchCheque("o00000032o t08154712t 4730o")
+    ));
+
+    final List<TellerTransactionOutcome> outcomes =
+        super.testSubject.post(teller.getCode(), chequeBatch).getOutcomes();
+    Assert.assertEquals(2, outcomes.size());
+    Assert.assertNotEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(0).getOutcome());
+    Assert.assertEquals(TellerTransactionOutcome.Outcome.REJECTED.name(), outcomes.get(1).getOutcome());
+  }
+
+  /**
+   * Polls the teller's transactions until the given one reached the state and matches the condition, as the
+   * outbox delivers confirmations asynchronously.
+   */
+  private TellerTransaction awaitTransaction(final String tellerCode, final String tellerTransactionIdentifier,
+                                             final TellerTransaction.State state,
+                                             final Predicate<TellerTransaction> condition) throws Exception {
+    for (int attempt = 0; attempt < 50; attempt++) {
+      final Optional<TellerTransaction> optionalTellerTransaction =
+          super.testSubject.fetch(tellerCode, state.name()).stream()
+              .filter(tellerTransaction -> tellerTransaction.getIdentifier().equals(tellerTransactionIdentifier))
+              .filter(condition)
+              .findFirst();
+      if (optionalTellerTransaction.isPresent()) {
+        return optionalTellerTransaction.get();
+      }
+      TimeUnit.MILLISECONDS.sleep(200L);
+    }
+    Assert.fail("Transaction " + tellerTransactionIdentifier + " did not become " + state.name() + ".");
+    return null;
+  }
+
+  private String hash(final String password, final String salt, final int iterationCount, final int length) {
+    return Base64Utils.encodeToString(
+        this.hashGenerator.hash(password, Base64Utils.decodeFromString(salt), iterationCount, length));
+  }
+
+  private ChequeBatchEntry prepareBatchCheque(final String micrLine) {
+    final ChequeBatchEntry chequeBatchEntry = new ChequeBatchEntry();
+    chequeBatchEntry.setMicrLine(micrLine);
+    chequeBatchEntry.setProductIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeBatchEntry.setProductCaseIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeBatchEntry.setCustomerAccountIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeBatchEntry.setCustomerIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeBatchEntry.setDrawee("whatever Bank");
+    chequeBatchEntry.setDrawer("Jane Doe");
+    chequeBatchEntry.setPayee("John Doe");
+    chequeBatchEntry.setDateIssued(DateConverter.toIsoString(LocalDate.now(Clock.systemUTC())));
+    chequeBatchEntry.setAmount(BigDecimal.valueOf(246.80D));
+    chequeBatchEntry.setOpenCheque(Boolean.FALSE);
+
+    Mockito
+        .doAnswer(invocation -> {
+          final Account mockedAccount = new Account();
+          mockedAccount.setState(Account.State.OPEN.name());
+          return Optional.of(mockedAccount);
+        })
+        .when(super.accountingServiceSpy).findAccount(chequeBatchEntry.getCustomerAccountIdentifier());
+
+    return chequeBatchEntry;
+  }
+
+  private TellerTransaction prepareBatchDeposit(final Account account) {
+    final TellerTransaction tellerTransaction =  new TellerTransaction();
+    tellerTransaction.setTransactionType(ServiceConstants.TX_CASH_DEPOSIT);
+    tellerTransaction.setTransactionDate(DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC())));
+    tellerTransaction.setProductIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    tellerTransaction.setCustomerAccountIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    tellerTransaction.setCustomerIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    tellerTransaction.setClerk(AbstractTellerTest.TEST_USER);
+    tellerTransaction.setAmount(commonAmount);
+
+    Mockito.doAnswer(invocation -> Optional.of(account))
+        .when(super.accountingServiceSpy).findAccount(tellerTransaction.getCustomerAccountIdentifier());
+    Mockito.doAnswer(invocation -> Collections.emptyList())
+        .when(super.depositAccountManagementServiceSpy).getCharges(Matchers.eq(tellerTransaction));
+    Mockito.doAnswer(invocation -> Collections.emptyList())
+        .when(super.depositAccountManagementServiceSpy).fetchProductInstances(tellerTransaction.getCustomerIdentifier());
+
+    return tellerTransaction;
+  }
+
   @Test
   public void shouldWithdraw() throws Exception {
     final Teller teller = this.prepareTeller();
@@ -428,6 +740,56 @@ public class TestTellerOperation extends AbstractTellerTest {
     super.testSubject.post(teller.getCode(), tellerTransaction);
   }
 
+  @Test
+  public void shouldFetchTransactionsPaged() throws Exception {
+    final Teller teller = this.prepareTeller();
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode());
+
+    final HashSet<String> postedTransactions = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      final TellerTransaction tellerTransaction =  new TellerTransaction();
+      tellerTransaction.setTransactionType(ServiceConstants.TX_CASH_DEPOSIT);
+      tellerTransaction.setTransactionDate(DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC())));
+      tellerTransaction.setProductIdentifier(RandomStringUtils.randomAlphanumeric(32));
+      tellerTransaction.setCustomerAccountIdentifier(RandomStringUtils.randomAlphanumeric(32));
+      tellerTransaction.setCustomerIdentifier(RandomStringUtils.randomAlphanumeric(32));
+      tellerTransaction.setClerk(AbstractTellerTest.TEST_USER);
+      tellerTransaction.setAmount(commonAmount);
+
+      final Account account = new Account();
+      account.setState(Account.State.OPEN.name());
+      Mockito.doAnswer(invocation -> Optional.of(account))
+          .when(super.accountingServiceSpy).findAccount(tellerTransaction.getCustomerAccountIdentifier());
+      Mockito.doAnswer(invocation -> Collections.emptyList())
+          .when(super.depositAccountManagementServiceSpy).getCharges(Matchers.eq(tellerTransaction));
+      Mockito.doAnswer(invocation -> Collections.emptyList())
+          .when(super.depositAccountManagementServiceSpy).fetchProductInstances(tellerTransaction.getCustomerIdentifier());
+
+      postedTransactions.add(
+          super.testSubject.post(teller.getCode(), tellerTransaction).getTellerTransactionIdentifier());
+    }
+
+    final HashSet<String> fetchedTransactions = new HashSet<>();
+    String cursor = null;
+    do {
+      final TellerTransactionPage tellerTransactionPage =
+          super.testSubject.fetch(teller.getCode(), TellerTransaction.State.PENDING.name(), 2, cursor, null);
+      Assert.assertTrue(tellerTransactionPage.getTellerTransactions().size() <= 2);
+      tellerTransactionPage.getTellerTransactions().forEach(tellerTransaction ->
+          Assert.assertTrue(fetchedTransactions.add(tellerTransaction.getIdentifier())));
+      cursor = tellerTransactionPage.getNextCursor();
+    } while (cursor != null);
+
+    Assert.assertTrue(fetchedTransactions.containsAll(postedTransactions));
+  }
+
   private Teller prepareTeller() throws Exception {
     if (TestTellerOperation.tellerUnderTest == null) {
       final String officeIdentifier = RandomStringUtils.randomAlphabetic(32);
@@ -478,6 +840,67 @@ public class TestTellerOperation extends AbstractTellerTest {
     return TestTellerOperation.tellerUnderTest;
   }
 
+  @Test
+  public void shouldRehashPasswordOnUnlock() throws Exception {
+    final String officeIdentifier = RandomStringUtils.randomAlphabetic(32);
+    final Teller teller = TellerGenerator.createRandomTeller();
+
+    Mockito.doAnswer(invocation -> true)
+        .when(super.organizationServiceSpy).officeExists(Matchers.eq(officeIdentifier));
+
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getTellerAccountIdentifier()));
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getVaultAccountIdentifier()));
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getChequesReceivableAccount()));
+    Mockito.doAnswer(invocation -> Optional.of(new Account()))
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(teller.getCashOverShortAccount()));
+
+    super.testSubject.create(officeIdentifier, teller);
+
+    Assert.assertTrue(super.eventRecorder.wait(EventConstants.POST_TELLER, teller.getCode()));
+
+    final TellerManagementCommand command = new TellerManagementCommand();
+    command.setAction(TellerManagementCommand.Action.OPEN.name());
+    command.setAdjustment(TellerManagementCommand.Adjustment.NONE.name());
+    command.setAssignedEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+
+    Mockito.doAnswer(invocation -> true)
+        .when(super.organizationServiceSpy).employeeExists(Matchers.eq(command.getAssignedEmployeeIdentifier()));
+
+    super.testSubject.post(officeIdentifier, teller.getCode(), command);
+
+    Assert.assertTrue(super.eventRecorder.wait(EventConstants.OPEN_TELLER, teller.getCode()));
+
+    // the password was hashed before the hash parameters were raised
+    final int legacyIterationCount = this.tellerPasswordService.getIterationCount() / 2;
+    final int legacyLength = this.tellerPasswordService.getLength() / 2;
+    new TransactionTemplate(this.transactionManager).execute(status -> {
+      final TellerEntity tellerEntity = this.tellerRepository.findByIdentifier(teller.getCode()).get();
+      return this.tellerRepository.updatePasswordHash(tellerEntity.getId(), tellerEntity.getSalt(),
+          this.hash(teller.getPassword(), tellerEntity.getSalt(), legacyIterationCount, legacyLength),
+          legacyIterationCount, legacyLength);
+    });
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    Assert.assertTrue(super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode()));
+
+    final TellerEntity rehashedTeller = this.tellerRepository.findByIdentifier(teller.getCode()).get();
+    Assert.assertEquals(Integer.valueOf(this.tellerPasswordService.getIterationCount()),
+        rehashedTeller.getHashIterationCount());
+    Assert.assertEquals(Integer.valueOf(this.tellerPasswordService.getLength()), rehashedTeller.getHashLength());
+    Assert.assertEquals(
+        this.hash(teller.getPassword(), rehashedTeller.getSalt(), this.tellerPasswordService.getIterationCount(),
+            this.tellerPasswordService.getLength()),
+        rehashedTeller.getPassword());
+  }
+
   @Test(expected = TellerNotFoundException.class)
   public void shouldNotUnlockTellerClosed() throws Exception {
     final String officeIdentifier = RandomStringUtils.randomAlphabetic(32);
@@ -669,6 +1092,75 @@ public class TestTellerOperation extends AbstractTellerTest {
     );
   }
 
+  @Test
+  public void shouldFailChequeRejectedByClearing() throws Exception {
+    final Teller teller = this.prepareTeller();
+
+    final UnlockDrawerCommand unlockDrawerCommand = new UnlockDrawerCommand();
+    unlockDrawerCommand.setEmployeeIdentifier(AbstractTellerTest.TEST_USER);
+    unlockDrawerCommand.setPassword(teller.getPassword());
+
+    super.testSubject.unlockDrawer(teller.getCode(), unlockDrawerCommand);
+
+    super.eventRecorder.wait(EventConstants.AUTHENTICATE_TELLER, teller.getCode());
+
+    final TellerTransaction chequeTransaction =  new TellerTransaction();
+    chequeTransaction.setTransactionType(ServiceConstants.TX_CHEQUE);
+    chequeTransaction.setTransactionDate(DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC())));
+    chequeTransaction.setProductIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeTransaction.setProductCaseIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeTransaction.setCustomerAccountIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeTransaction.setCustomerIdentifier(RandomStringUtils.randomAlphanumeric(32));
+    chequeTransaction.setClerk(AbstractTellerTest.TEST_USER);
+    chequeTransaction.setAmount(BigDecimal.valueOf(246.80D));
+
+    final MICR micr = new MICR();
+    micr.setChequeNumber(RandomStringUtils.randomNumeric(8));
+    micr.setBranchSortCode("08154711");
+    micr.setAccountNumber(RandomStringUtils.randomNumeric(16));
+
+    Mockito
+        .doAnswer(invocation -> {
+          final Account mockedAccount = new Account();
+          mockedAccount.setBalance(2000.00D);
+          mockedAccount.setState(Account.State.OPEN.name());
+          return Optional.of(mockedAccount);
+        })
+        .when(super.accountingServiceSpy).findAccount(Matchers.eq(micr.getAccountNumber()));
+
+    final Cheque cheque = new Cheque();
+    cheque.setMicr(micr);
+    cheque.setDrawee("whatever Bank");
+    cheque.setDrawer("Jane Doe");
+    cheque.setPayee("John Doe");
+    cheque.setDateIssued(DateConverter.toIsoString(LocalDate.now(Clock.systemUTC())));
+    cheque.setAmount(BigDecimal.valueOf(246.80D));
+    cheque.setOpenCheque(Boolean.FALSE);
+    chequeTransaction.setCheque(cheque);
+
+    Mockito
+        .doAnswer(invocation -> {
+          final Account mockedAccount = new Account();
+          mockedAccount.setState(Account.State.OPEN.name());
+          return Optional.of(mockedAccount);
+        })
+        .when(super.accountingServiceSpy).findAccount(chequeTransaction.getCustomerAccountIdentifier());
+
+    Mockito.doThrow(new IllegalArgumentException("Cheque not valid."))
+        .when(super.chequeServiceSpy).process(Matchers.any(ChequeTransaction.class));
+
+    final TellerTransactionCosts tellerTransactionCosts = super.testSubject.post(teller.getCode(), chequeTransaction);
+
+    super.testSubject.confirm(teller.getCode(), tellerTransactionCosts.getTellerTransactionIdentifier(),
+        "CONFIRM", null);
+
+    final TellerTransaction failedTransaction = this.awaitTransaction(teller.getCode(),
+        tellerTransactionCosts.getTellerTransactionIdentifier(), TellerTransaction.State.FAILED,
+        transaction -> transaction.getCheque() != null);
+    Assert.assertEquals(Cheque.ClearingState.FAILED.name(), failedTransaction.getCheque().getClearingState());
+    Assert.assertNull(failedTransaction.getFollowUpError());
+  }
+
   @Test(expected = TellerTransactionValidationException.class)
   public void shouldNotProcessChequeAlreadyUsed() throws Exception {
     final Teller teller = this.prepareTeller();
@@ -30,9 +30,12 @@ import org.apache.fineract.cn.lang.config.EnableServiceException;
 import org.apache.fineract.cn.lang.config.EnableTenantContext;
 import org.apache.fineract.cn.postgresql.config.EnablePostgreSQL;
 import org.apache.fineract.cn.office.api.v1.client.OrganizationManager;
+import org.apache.fineract.cn.permittedfeignclient.config.EnablePermissionRequestingFeignClient;
 import org.apache.fineract.cn.portfolio.api.v1.client.PortfolioManager;
+import org.apache.fineract.cn.teller.service.internal.util.ContextPropagatingExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.netflix.feign.EnableFeignClients;
@@ -40,6 +43,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
@@ -48,6 +52,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
 @EnableAutoConfiguration
 // @EnableDiscoveryClient
 @EnableAsync
+@EnableScheduling
 @EnableTenantContext
 @EnableCassandra
 @EnablePostgreSQL
@@ -64,12 +69,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
         ChequeManager.class
     }
 )
+@EnablePermissionRequestingFeignClient
 @ComponentScan({
     "org.apache.fineract.cn.teller.service.rest",
     "org.apache.fineract.cn.teller.service.internal.service",
     "org.apache.fineract.cn.teller.service.internal.repository",
     "org.apache.fineract.cn.teller.service.internal.command.handler",
-    "org.apache.fineract.cn.teller.service.internal.processor"
+    "org.apache.fineract.cn.teller.service.internal.processor",
+    "org.apache.fineract.cn.teller.service.internal.listener"
 })
 @EnableJpaRepositories({
     "org.apache.fineract.cn.teller.service.internal.repository"
@@ -85,6 +92,12 @@ public class TellerConfiguration extends WebMvcConfigurerAdapter {
     return LoggerFactory.getLogger(ServiceConstants.LOGGER_NAME);
   }
 
+  @Bean(destroyMethod = "shutdown")
+  public ContextPropagatingExecutor remoteCallExecutor(@Value("${teller.executor.poolSize:8}") final int poolSize,
+                                                       @Value("${teller.executor.queueCapacity:256}") final int queueCapacity) {
+    return new ContextPropagatingExecutor("teller-remote", poolSize, queueCapacity);
+  }
+
   @Override
   public void configurePathMatch(final PathMatchConfigurer configurer) {
     configurer.setUseSuffixPatternMatch(Boolean.FALSE);
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.command;
+
+import org.apache.fineract.cn.teller.api.v1.domain.Teller;
+import org.apache.fineract.cn.teller.service.internal.service.TellerPasswordService;
+import java.util.List;
+import java.util.Map;
+
+public class PostTellerBatchCommand {
+  private final String officeIdentifier;
+  private final List<Teller> tellers;
+  private final List<Integer> indexes;
+  private final Map<String, TellerPasswordService.PasswordHash> passwordHashes;
+
+  public PostTellerBatchCommand(final String officeIdentifier, final List<Teller> tellers,
+                                final List<Integer> indexes,
+                                final Map<String, TellerPasswordService.PasswordHash> passwordHashes) {
+    super();
+    this.officeIdentifier = officeIdentifier;
+    this.tellers = tellers;
+    this.indexes = indexes;
+    this.passwordHashes = passwordHashes;
+  }
+
+  public String officeIdentifier() {
+    return this.officeIdentifier;
+  }
+
+  public List<Teller> tellers() {
+    return this.tellers;
+  }
+
+  public List<Integer> indexes() {
+    return this.indexes;
+  }
+
+  public Map<String, TellerPasswordService.PasswordHash> passwordHashes() {
+    return this.passwordHashes;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.command;
+
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
+import java.util.List;
+
+public class PostTellerTransactionBatchCommand {
+  private final String tellerCode;
+  private final List<TellerTransaction> tellerTransactions;
+  private final List<Integer> indexes;
+  private final List<TellerTransactionCosts> quotedCosts;
+  private final boolean confirm;
+  private final boolean chargesIncluded;
+
+  public PostTellerTransactionBatchCommand(final String tellerCode, final List<TellerTransaction> tellerTransactions,
+                                           final List<Integer> indexes,
+                                           final List<TellerTransactionCosts> quotedCosts, final boolean confirm,
+                                           final boolean chargesIncluded) {
+    super();
+    this.tellerCode = tellerCode;
+    this.tellerTransactions = tellerTransactions;
+    this.indexes = indexes;
+    this.quotedCosts = quotedCosts;
+    this.confirm = confirm;
+    this.chargesIncluded = chargesIncluded;
+  }
+
+  public String tellerCode() {
+    return this.tellerCode;
+  }
+
+  public List<TellerTransaction> tellerTransactions() {
+    return this.tellerTransactions;
+  }
+
+  public List<Integer> indexes() {
+    return this.indexes;
+  }
+
+  /**
+   * Costs already quoted while verifying, one per transaction; {@code null} where the
+   * transaction still needs to be quoted.
+   */
+  public List<TellerTransactionCosts> quotedCosts() {
+    return this.quotedCosts;
+  }
+
+  public boolean confirm() {
+    return this.confirm;
+  }
+
+  public boolean chargesIncluded() {
+    return this.chargesIncluded;
+  }
+}
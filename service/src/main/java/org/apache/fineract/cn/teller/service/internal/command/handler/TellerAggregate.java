@@ -22,8 +22,10 @@ import com.google.common.collect.Sets;
 import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.EventConstants;
 import org.apache.fineract.cn.teller.api.v1.domain.Teller;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerDenomination;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerManagementCommand;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerOutcome;
 import org.apache.fineract.cn.teller.api.v1.domain.UnlockDrawerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.ChangeTellerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.CloseTellerCommand;
@@ -32,18 +34,31 @@ import org.apache.fineract.cn.teller.service.internal.command.DeleteTellerComman
 import org.apache.fineract.cn.teller.service.internal.command.DrawerUnlockCommand;
 import org.apache.fineract.cn.teller.service.internal.command.OpenTellerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.PauseTellerCommand;
+import org.apache.fineract.cn.teller.service.internal.command.PostTellerBatchCommand;
 import org.apache.fineract.cn.teller.service.internal.command.TellerDenominationCommand;
 import org.apache.fineract.cn.teller.service.internal.mapper.TellerMapper;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerDenominationEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerDenominationRepository;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
-import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
+import org.apache.fineract.cn.teller.service.internal.service.TellerBalanceService;
+import org.apache.fineract.cn.teller.service.internal.service.TellerPasswordService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountCache;
+import org.apache.fineract.cn.teller.service.internal.service.helper.JournalEntryPoster;
 import org.apache.fineract.cn.teller.service.internal.service.helper.OrganizationService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.fineract.cn.accounting.api.v1.domain.Creditor;
 import org.apache.fineract.cn.accounting.api.v1.domain.Debtor;
@@ -52,43 +67,48 @@ import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
 import org.apache.fineract.cn.command.annotation.EventEmitter;
-import org.apache.fineract.cn.crypto.HashGenerator;
-import org.apache.fineract.cn.crypto.SaltGenerator;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 
 @Aggregate
 public class TellerAggregate {
 
+  private static final int MAXIMUM_TRANSITION_ATTEMPTS = 3;
+
   private final Logger logger;
   private final TellerRepository tellerRepository;
   private final TellerDenominationRepository tellerDenominationRepository;
   private final OrganizationService organizationService;
-  private final AccountingService accountingService;
-  private final HashGenerator hashGenerator;
-  private final SaltGenerator saltGenerator;
+  private final JournalEntryPoster journalEntryPoster;
+  private final AccountCache accountCache;
+  private final TellerCache tellerCache;
+  private final TellerBalanceService tellerBalanceService;
+  private final TellerPasswordService tellerPasswordService;
 
   @Autowired
   public TellerAggregate(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                          final TellerRepository tellerRepository,
                          final TellerDenominationRepository tellerDenominationRepository,
                          final OrganizationService organizationService,
-                         final AccountingService accountingService,
-                         final HashGenerator hashGenerator,
-                         final SaltGenerator saltGenerator) {
+                         final JournalEntryPoster journalEntryPoster,
+                         final AccountCache accountCache,
+                         final TellerCache tellerCache,
+                         final TellerBalanceService tellerBalanceService,
+                         final TellerPasswordService tellerPasswordService) {
     super();
     this.logger = logger;
     this.tellerRepository = tellerRepository;
     this.tellerDenominationRepository = tellerDenominationRepository;
     this.organizationService = organizationService;
-    this.accountingService = accountingService;
-    this.hashGenerator = hashGenerator;
-    this.saltGenerator = saltGenerator;
+    this.journalEntryPoster = journalEntryPoster;
+    this.accountCache = accountCache;
+    this.tellerCache = tellerCache;
+    this.tellerBalanceService = tellerBalanceService;
+    this.tellerPasswordService = tellerPasswordService;
   }
 
   @Transactional
@@ -118,6 +138,74 @@ public class TellerAggregate {
     }
   }
 
+  /**
+   * Creates or changes all tellers of an office roll-out in one database transaction. Office and accounts
+   * have been verified once per distinct identifier by the caller, and password hashes derived before dispatch,
+   * so only the existing tellers are looked up here, with a single query. A single post-teller-batch event is
+   * emitted for the whole roll-out, no post-teller or put-teller event per teller.
+   */
+  @Transactional
+  @CommandHandler
+  @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.POST_TELLER_BATCH)
+  public TellerBatchResult process(final PostTellerBatchCommand postTellerBatchCommand) {
+    final String officeIdentifier = postTellerBatchCommand.officeIdentifier();
+    final List<Teller> tellers = postTellerBatchCommand.tellers();
+
+    final Map<String, TellerEntity> existingTellers = this.tellerRepository.findByIdentifierIn(
+        tellers.stream().map(Teller::getCode).collect(Collectors.toList()))
+        .stream()
+        .collect(Collectors.toMap(TellerEntity::getIdentifier, Function.identity()));
+
+    final String currentUser = UserContextHolder.checkedGetUser();
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+    final Map<String, TellerPasswordService.PasswordHash> passwordHashes = postTellerBatchCommand.passwordHashes();
+    final ArrayList<TellerEntity> tellerEntities = new ArrayList<>(tellers.size());
+    final ArrayList<TellerOutcome> outcomes = new ArrayList<>(tellers.size());
+    for (int i = 0; i < tellers.size(); i++) {
+      final Teller teller = tellers.get(i);
+      final TellerOutcome tellerOutcome = new TellerOutcome();
+      tellerOutcome.setIndex(postTellerBatchCommand.indexes().get(i));
+      tellerOutcome.setCode(teller.getCode());
+      outcomes.add(tellerOutcome);
+
+      final TellerEntity existingTeller = existingTellers.get(teller.getCode());
+      final TellerPasswordService.PasswordHash passwordHash = passwordHashes.get(teller.getCode());
+      if (existingTeller == null && passwordHash == null) {
+        tellerOutcome.setOutcome(TellerOutcome.Outcome.REJECTED.name());
+        tellerOutcome.setMessage("Password of teller " + teller.getCode() + " must be given.");
+      } else if (existingTeller == null) {
+        final TellerEntity tellerEntity = TellerMapper.map(officeIdentifier, teller);
+        passwordHash.applyTo(tellerEntity);
+        tellerEntity.setState(Teller.State.CLOSED.name());
+        tellerEntity.setCreatedBy(currentUser);
+        tellerEntity.setCreatedOn(now);
+        tellerEntities.add(tellerEntity);
+        tellerOutcome.setOutcome(TellerOutcome.Outcome.CREATED.name());
+      } else if (!existingTeller.getOfficeIdentifier().equals(officeIdentifier)) {
+        tellerOutcome.setOutcome(TellerOutcome.Outcome.REJECTED.name());
+        tellerOutcome.setMessage("Teller " + teller.getCode() + " belongs to another office.");
+      } else {
+        this.applyChanges(teller, existingTeller, currentUser, now);
+        if (passwordHash != null) {
+          passwordHash.applyTo(existingTeller);
+        }
+        tellerEntities.add(existingTeller);
+        tellerOutcome.setOutcome(TellerOutcome.Outcome.CHANGED.name());
+      }
+    }
+
+    this.tellerRepository.save(tellerEntities);
+    existingTellers.keySet().forEach(this.tellerCache::invalidate);
+
+    if (outcomes.stream().anyMatch(outcome -> outcome.getOutcome().equals(TellerOutcome.Outcome.CREATED.name()))) {
+      this.organizationService.setTellerReference(officeIdentifier);
+    }
+
+    final TellerBatchResult tellerBatchResult = new TellerBatchResult();
+    tellerBatchResult.setOutcomes(outcomes);
+    return tellerBatchResult;
+  }
+
   @Transactional
   @CommandHandler
   @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.PUT_TELLER)
@@ -134,18 +222,11 @@ public class TellerAggregate {
           this.encryptPassword(teller, tellerEntity);
         }
 
-        tellerEntity.setTellerAccountIdentifier(teller.getTellerAccountIdentifier());
-        tellerEntity.setVaultAccountIdentifier(teller.getVaultAccountIdentifier());
-        tellerEntity.setChequesReceivableAccount(teller.getChequesReceivableAccount());
-        tellerEntity.setCashdrawLimit(teller.getCashdrawLimit());
-        tellerEntity.setCashOverShortAccount(teller.getCashOverShortAccount());
-        tellerEntity.setDenominationRequired(
-            teller.getDenominationRequired() != null ? teller.getDenominationRequired() : Boolean.FALSE
-        );
-        tellerEntity.setLastModifiedBy(UserContextHolder.checkedGetUser());
-        tellerEntity.setLastModifiedOn(LocalDateTime.now(Clock.systemUTC()));
+        this.applyChanges(teller, tellerEntity,
+            UserContextHolder.checkedGetUser(), LocalDateTime.now(Clock.systemUTC()));
 
         this.tellerRepository.save(tellerEntity);
+        this.tellerCache.invalidate(tellerEntity.getIdentifier());
 
         return teller.getCode();
       } else {
@@ -162,34 +243,32 @@ public class TellerAggregate {
   public String process(final OpenTellerCommand openTellerCommand) {
     final String tellerCode = openTellerCommand.tellerCode();
     final TellerManagementCommand tellerManagementCommand = openTellerCommand.tellerManagementCommand();
-
-    final Optional<TellerEntity> optionalTellerEntity = this.tellerRepository.findByIdentifier(tellerCode);
-    if (optionalTellerEntity.isPresent()) {
-      final TellerEntity tellerEntity = optionalTellerEntity.get();
-
-      if (this.checkPreconditions(tellerEntity.getOfficeIdentifier(), TellerMapper.map(tellerEntity))) {
-
-        if (!tellerManagementCommand.getAdjustment().equals(TellerManagementCommand.Adjustment.NONE.name())
-            && tellerManagementCommand.getAmount() != null
-            && tellerManagementCommand.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-          this.accountingService.postJournalEntry(this.createJournalEntry(tellerEntity, tellerManagementCommand));
-        }
-
-        tellerEntity.setAssignedEmployeeIdentifier(tellerManagementCommand.getAssignedEmployeeIdentifier());
-        tellerEntity.setState(Teller.State.OPEN.name());
-        tellerEntity.setLastModifiedBy(UserContextHolder.checkedGetUser());
-        tellerEntity.setLastModifiedOn(LocalDateTime.now(Clock.systemUTC()));
-        tellerEntity.setLastOpenedBy(tellerEntity.getLastModifiedBy());
-        tellerEntity.setLastOpenedOn(tellerEntity.getLastModifiedOn());
-
-        this.tellerRepository.save(tellerEntity);
-        return tellerCode;
-      } else {
-        throw new IllegalStateException("Preconditions not met, see log file for further information.");
-      }
-    } else {
-      throw new IllegalStateException("Teller " + tellerCode + " not found.");
+    final String currentUser = UserContextHolder.checkedGetUser();
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+
+    final TellerEntity tellerEntity = this.transition(tellerCode,
+        this::verifyPreconditions,
+        candidate -> this.tellerRepository.updateStateOpened(candidate.getId(), candidate.getState(),
+            candidate.getVersion(), Teller.State.OPEN.name(), tellerManagementCommand.getAssignedEmployeeIdentifier(),
+            currentUser, now)
+    ).orElseThrow(() -> new IllegalStateException("Teller " + tellerCode + " not found."));
+
+    tellerEntity.setAssignedEmployeeIdentifier(tellerManagementCommand.getAssignedEmployeeIdentifier());
+    tellerEntity.setState(Teller.State.OPEN.name());
+    tellerEntity.setLastModifiedBy(currentUser);
+    tellerEntity.setLastModifiedOn(now);
+    tellerEntity.setLastOpenedBy(currentUser);
+    tellerEntity.setLastOpenedOn(now);
+
+    this.tellerBalanceService.startSession(tellerEntity);
+    if (!tellerManagementCommand.getAdjustment().equals(TellerManagementCommand.Adjustment.NONE.name())
+        && tellerManagementCommand.getAmount() != null
+        && tellerManagementCommand.getAmount().compareTo(BigDecimal.ZERO) > 0) {
+      final JournalEntry openingJournalEntry = this.createJournalEntry(tellerEntity, tellerManagementCommand);
+      this.journalEntryPoster.post(openingJournalEntry);
+      this.tellerBalanceService.record(tellerEntity, openingJournalEntry);
     }
+    return tellerCode;
   }
 
   @Transactional
@@ -198,31 +277,23 @@ public class TellerAggregate {
   public String process(final CloseTellerCommand closeTellerCommand) {
     final String tellerCode = closeTellerCommand.tellerCode();
     final TellerManagementCommand tellerManagementCommand = closeTellerCommand.tellerManagementCommand();
-
-    final Optional<TellerEntity> optionalTellerEntity = this.tellerRepository.findByIdentifier(tellerCode);
-    if (optionalTellerEntity.isPresent()) {
-      final TellerEntity tellerEntity = optionalTellerEntity.get();
-
-      if (this.checkPreconditions(tellerEntity.getOfficeIdentifier(), TellerMapper.map(tellerEntity))) {
-
-        if (!tellerManagementCommand.getAdjustment().equals(TellerManagementCommand.Adjustment.NONE.name())
-            && tellerManagementCommand.getAmount() != null
-            && tellerManagementCommand.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-          this.accountingService.postJournalEntry(this.createJournalEntry(tellerEntity, tellerManagementCommand));
-        }
-        tellerEntity.setAssignedEmployeeIdentifier(null);
-        tellerEntity.setState(Teller.State.CLOSED.name());
-        tellerEntity.setLastModifiedBy(UserContextHolder.checkedGetUser());
-        tellerEntity.setLastModifiedOn(LocalDateTime.now(Clock.systemUTC()));
-
-        this.tellerRepository.save(tellerEntity);
-        return tellerCode;
-      } else {
-        throw new IllegalStateException("Preconditions not met, see log file for further information.");
-      }
-    } else {
-      throw new IllegalStateException("Teller " + tellerCode + " not found.");
+    final String currentUser = UserContextHolder.checkedGetUser();
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+
+    final TellerEntity tellerEntity = this.transition(tellerCode,
+        this::verifyPreconditions,
+        candidate -> this.tellerRepository.updateState(candidate.getId(), candidate.getState(),
+            candidate.getVersion(), Teller.State.CLOSED.name(), null, currentUser, now)
+    ).orElseThrow(() -> new IllegalStateException("Teller " + tellerCode + " not found."));
+
+    if (!tellerManagementCommand.getAdjustment().equals(TellerManagementCommand.Adjustment.NONE.name())
+        && tellerManagementCommand.getAmount() != null
+        && tellerManagementCommand.getAmount().compareTo(BigDecimal.ZERO) > 0) {
+      final JournalEntry closingJournalEntry = this.createJournalEntry(tellerEntity, tellerManagementCommand);
+      this.journalEntryPoster.post(closingJournalEntry);
+      this.tellerBalanceService.record(tellerEntity, closingJournalEntry);
     }
+    return tellerCode;
   }
 
   @Transactional
@@ -231,34 +302,41 @@ public class TellerAggregate {
   public String process(final DrawerUnlockCommand drawerUnlockCommand) {
     final String tellerCode = drawerUnlockCommand.tellerCode();
     final UnlockDrawerCommand unlockDrawerCommand = drawerUnlockCommand.tellerAuthentication();
+    final String currentUser = UserContextHolder.checkedGetUser();
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+
+    final AtomicReference<String> rehashedPassword = new AtomicReference<>();
+    final TellerEntity tellerEntity = this.transition(tellerCode,
+        candidate -> {
+          if (candidate.getState().equals(Teller.State.CLOSED.name())) {
+            throw ServiceException.notFound("Teller {0} not found.", tellerCode);
+          }
+
+          if (!currentUser.equals(candidate.getAssignedEmployeeIdentifier())) {
+            throw ServiceException.notFound("Teller {0} not found.", tellerCode);
+          }
+
+          final TellerPasswordService.Verification verification =
+              this.tellerPasswordService.verify(candidate, unlockDrawerCommand.getPassword());
+          if (!verification.isValid()) {
+            throw ServiceException.notFound("Teller {0} not found.", tellerCode);
+          }
+          verification.getRehashedPassword().ifPresent(rehashedPassword::set);
+          return true;
+        },
+        candidate -> this.tellerRepository.updateState(candidate.getId(), candidate.getState(),
+            candidate.getVersion(), Teller.State.ACTIVE.name(), candidate.getAssignedEmployeeIdentifier(),
+            currentUser, now)
+    ).orElseThrow(() -> ServiceException.notFound("Teller {0} not found.", tellerCode));
+
+    Optional.ofNullable(rehashedPassword.get()).ifPresent(password -> {
+      this.tellerRepository.updatePasswordHash(tellerEntity.getId(), tellerEntity.getSalt(), password,
+          this.tellerPasswordService.getIterationCount(), this.tellerPasswordService.getLength());
+      this.tellerCache.invalidate(tellerCode);
+      this.logger.info("Password hash of teller {} upgraded to current parameters.", tellerCode);
+    });
 
-    final Optional<TellerEntity> optionalTeller = this.tellerRepository.findByIdentifier(tellerCode);
-    if (optionalTeller.isPresent()) {
-      final TellerEntity tellerEntity = optionalTeller.get();
-      if (tellerEntity.getState().equals(Teller.State.CLOSED.name())) {
-        throw ServiceException.notFound("Teller {0} not found.", tellerCode);
-      }
-
-      if (!UserContextHolder.checkedGetUser().equals(tellerEntity.getAssignedEmployeeIdentifier())) {
-        throw ServiceException.notFound("Teller {0} not found.", tellerCode);
-      }
-
-      final byte[] givenPassword = this.hashGenerator.hash(unlockDrawerCommand.getPassword(),
-          Base64Utils.decodeFromString(tellerEntity.getSalt()), ServiceConstants.ITERATION_COUNT, ServiceConstants.LENGTH);
-
-      if (!tellerEntity.getPassword().equals(Base64Utils.encodeToString(givenPassword))) {
-        throw ServiceException.notFound("Teller {0} not found.", tellerCode);
-      }
-
-      tellerEntity.setState(Teller.State.ACTIVE.name());
-      tellerEntity.setLastModifiedBy(UserContextHolder.checkedGetUser());
-      tellerEntity.setLastModifiedOn(LocalDateTime.now(Clock.systemUTC()));
-      this.tellerRepository.save(tellerEntity);
-
-      return tellerCode;
-    } else {
-      throw ServiceException.notFound("Teller {0} not found.", tellerCode);
-    }
+    return tellerCode;
   }
 
   @Transactional
@@ -266,23 +344,21 @@ public class TellerAggregate {
   @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.PAUSE_TELLER)
   public String process(final PauseTellerCommand pauseTellerCommand) {
     final String tellerCode = pauseTellerCommand.tellerCode();
+    final String currentUser = UserContextHolder.checkedGetUser();
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+
+    final Optional<TellerEntity> optionalTeller = this.transition(tellerCode,
+        candidate -> currentUser.equals(candidate.getAssignedEmployeeIdentifier())
+            && candidate.getState().equals(Teller.State.ACTIVE.name()),
+        candidate -> this.tellerRepository.updateState(candidate.getId(), candidate.getState(),
+            candidate.getVersion(), Teller.State.PAUSED.name(), candidate.getAssignedEmployeeIdentifier(),
+            currentUser, now)
+    );
 
-    final Optional<TellerEntity> optionalTeller = this.tellerRepository.findByIdentifier(tellerCode);
     if (optionalTeller.isPresent()) {
-      final TellerEntity tellerEntity = optionalTeller.get();
-      if (UserContextHolder.checkedGetUser().equals(tellerEntity.getAssignedEmployeeIdentifier())
-          && tellerEntity.getState().equals(Teller.State.ACTIVE.name())) {
-        tellerEntity.setState(Teller.State.PAUSED.name());
-        tellerEntity.setLastModifiedBy(UserContextHolder.checkedGetUser());
-        tellerEntity.setLastModifiedOn(LocalDateTime.now(Clock.systemUTC()));
-        this.tellerRepository.save(tellerEntity);
-
-        return tellerCode;
-      } else {
-        this.logger.warn("Unable to pause teller {}.", tellerCode);
-      }
+      return tellerCode;
     } else {
-      this.logger.warn("Teller {} not found.", tellerCode);
+      this.logger.warn("Unable to pause teller {}.", tellerCode);
     }
     return null;
   }
@@ -298,6 +374,7 @@ public class TellerAggregate {
       final TellerEntity tellerEntity = optionalTeller.get();
       if (tellerEntity.getLastOpenedBy() == null) {
         this.tellerRepository.delete(tellerEntity);
+        this.tellerCache.invalidate(tellerEntity.getIdentifier());
         return tellerCode;
       } else {
         this.logger.warn("Could not close teller {}, already used.", tellerCode);
@@ -343,12 +420,12 @@ public class TellerAggregate {
       pass = false;
     }
 
-    if (!this.accountingService.findAccount(teller.getTellerAccountIdentifier()).isPresent()) {
+    if (!this.accountCache.find(teller.getTellerAccountIdentifier()).isPresent()) {
       this.logger.warn("Teller account {} not found.", teller.getTellerAccountIdentifier());
       pass = false;
     }
 
-    if (!this.accountingService.findAccount(teller.getVaultAccountIdentifier()).isPresent()) {
+    if (!this.accountCache.find(teller.getVaultAccountIdentifier()).isPresent()) {
       this.logger.warn("Vault account {} not found.", teller.getVaultAccountIdentifier());
       pass = false;
     }
@@ -357,11 +434,21 @@ public class TellerAggregate {
   }
 
   private void encryptPassword(final Teller teller, final TellerEntity tellerEntity) {
-    final byte[] salt = this.saltGenerator.createRandomSalt();
-    final byte[] newPassword = this.hashGenerator.hash(teller.getPassword(), salt, ServiceConstants.ITERATION_COUNT,
-        ServiceConstants.LENGTH);
-    tellerEntity.setSalt(Base64Utils.encodeToString(salt));
-    tellerEntity.setPassword(Base64Utils.encodeToString(newPassword));
+    this.tellerPasswordService.encryptPassword(teller.getPassword(), tellerEntity);
+  }
+
+  private void applyChanges(final Teller teller, final TellerEntity tellerEntity, final String modifiedBy,
+                            final LocalDateTime modifiedOn) {
+    tellerEntity.setTellerAccountIdentifier(teller.getTellerAccountIdentifier());
+    tellerEntity.setVaultAccountIdentifier(teller.getVaultAccountIdentifier());
+    tellerEntity.setChequesReceivableAccount(teller.getChequesReceivableAccount());
+    tellerEntity.setCashdrawLimit(teller.getCashdrawLimit());
+    tellerEntity.setCashOverShortAccount(teller.getCashOverShortAccount());
+    tellerEntity.setDenominationRequired(
+        teller.getDenominationRequired() != null ? teller.getDenominationRequired() : Boolean.FALSE
+    );
+    tellerEntity.setLastModifiedBy(modifiedBy);
+    tellerEntity.setLastModifiedOn(modifiedOn);
   }
 
   private JournalEntry createJournalEntry(final TellerEntity tellerEntity, final TellerManagementCommand tellerManagementCommand) {
@@ -444,10 +531,43 @@ public class TellerAggregate {
         journalEntry.setCreditors(Sets.newHashSet(creditor));
       }
 
-      this.accountingService.postJournalEntry(journalEntry);
+      this.journalEntryPoster.post(journalEntry);
+      this.tellerBalanceService.record(tellerEntity, journalEntry);
       return Optional.of(journalEntry.getTransactionIdentifier());
     }
     return Optional.empty();
   }
-}
 
+  /**
+   * Moves the teller to a new state with a conditional update on the state and version read, so a concurrent
+   * command can neither be overwritten nor block on the teller row. If the teller was changed in between it is
+   * read again and the precondition re-evaluated. Returns empty if the teller does not exist or the
+   * precondition is not met.
+   */
+  private Optional<TellerEntity> transition(final String tellerCode, final Predicate<TellerEntity> precondition,
+                                            final ToIntFunction<TellerEntity> conditionalUpdate) {
+    for (int attempt = 1; ; attempt++) {
+      final Optional<TellerEntity> optionalTellerEntity = this.tellerRepository.findByIdentifier(tellerCode);
+      if (!optionalTellerEntity.isPresent() || !precondition.test(optionalTellerEntity.get())) {
+        return Optional.empty();
+      }
+
+      if (conditionalUpdate.applyAsInt(optionalTellerEntity.get()) == 1) {
+        this.tellerCache.invalidate(tellerCode);
+        return optionalTellerEntity;
+      }
+
+      if (attempt >= MAXIMUM_TRANSITION_ATTEMPTS) {
+        throw ServiceException.conflict("Teller {0} was changed concurrently.", tellerCode);
+      }
+      this.logger.info("Teller {} changed concurrently, retrying.", tellerCode);
+    }
+  }
+
+  private boolean verifyPreconditions(final TellerEntity tellerEntity) {
+    if (!this.checkPreconditions(tellerEntity.getOfficeIdentifier(), TellerMapper.map(tellerEntity))) {
+      throw new IllegalStateException("Preconditions not met, see log file for further information.");
+    }
+    return true;
+  }
+}
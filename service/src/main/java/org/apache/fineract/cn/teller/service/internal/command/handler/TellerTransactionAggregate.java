@@ -22,12 +22,16 @@ import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.EventConstants;
 import org.apache.fineract.cn.teller.api.v1.domain.Cheque;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionOutcome;
 import org.apache.fineract.cn.teller.service.internal.command.CancelTellerTransactionCommand;
 import org.apache.fineract.cn.teller.service.internal.command.ConfirmTellerTransactionCommand;
 import org.apache.fineract.cn.teller.service.internal.command.InitializeTellerTransactionCommand;
+import org.apache.fineract.cn.teller.service.internal.command.PostTellerTransactionBatchCommand;
 import org.apache.fineract.cn.teller.service.internal.mapper.ChequeMapper;
 import org.apache.fineract.cn.teller.service.internal.mapper.TellerTransactionMapper;
+import org.apache.fineract.cn.teller.service.internal.processor.TellerTransactionOutbox;
 import org.apache.fineract.cn.teller.service.internal.processor.TellerTransactionProcessor;
 import org.apache.fineract.cn.teller.service.internal.repository.ChequeEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.ChequeRepository;
@@ -35,7 +39,11 @@ import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionRepository;
+import org.apache.fineract.cn.teller.service.internal.service.helper.ChequeRegistry;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
 import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.fineract.cn.command.annotation.Aggregate;
@@ -45,7 +53,9 @@ import org.apache.fineract.cn.lang.DateConverter;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Aggregate
 public class TellerTransactionAggregate {
@@ -54,20 +64,32 @@ public class TellerTransactionAggregate {
   private final TellerTransactionRepository tellerTransactionRepository;
   private final TellerTransactionProcessor tellerTransactionProcessor;
   private final TellerRepository tellerRepository;
+  private final TellerCache tellerCache;
   private final ChequeRepository chequeRepository;
+  private final ChequeRegistry chequeRegistry;
+  private final TellerTransactionOutbox tellerTransactionOutbox;
+  private final TransactionTemplate transactionTemplate;
 
   @Autowired
   public TellerTransactionAggregate(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                                     final TellerTransactionRepository tellerTransactionRepository,
                                     final TellerTransactionProcessor tellerTransactionProcessor,
                                     final TellerRepository tellerRepository,
-                                    final ChequeRepository chequeRepository) {
+                                    final TellerCache tellerCache,
+                                    final ChequeRepository chequeRepository,
+                                    final ChequeRegistry chequeRegistry,
+                                    final TellerTransactionOutbox tellerTransactionOutbox,
+                                    final PlatformTransactionManager transactionManager) {
     super();
     this.logger = logger;
     this.tellerTransactionRepository = tellerTransactionRepository;
     this.tellerTransactionProcessor = tellerTransactionProcessor;
     this.tellerRepository = tellerRepository;
+    this.tellerCache = tellerCache;
     this.chequeRepository = chequeRepository;
+    this.chequeRegistry = chequeRegistry;
+    this.tellerTransactionOutbox = tellerTransactionOutbox;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   @Transactional
@@ -77,37 +99,73 @@ public class TellerTransactionAggregate {
     final String tellerCode = initializeTellerTransactionCommand.tellerCode();
     final TellerTransaction tellerTransaction = initializeTellerTransactionCommand.tellerTransaction();
 
-    final Optional<TellerEntity> optionalTeller = this.tellerRepository.findByIdentifier(tellerCode);
+    final Optional<TellerEntity> optionalTeller = this.tellerCache.find(tellerCode);
     if (optionalTeller.isPresent()) {
       tellerTransaction.setIdentifier(RandomStringUtils.randomAlphanumeric(32));
       tellerTransaction.setState(TellerTransaction.State.PENDING.name());
       final TellerTransactionEntity tellerTransactionEntity = TellerTransactionMapper.map(tellerTransaction);
-      tellerTransactionEntity.setTeller(optionalTeller.get());
+      tellerTransactionEntity.setTeller(this.tellerRepository.getOne(optionalTeller.get().getId()));
+      final TellerTransactionCosts tellerTransactionCosts =
+          this.tellerTransactionProcessor.quoteCosts(tellerTransactionEntity, tellerTransaction);
       final TellerTransactionEntity savedTellerTransaction = this.tellerTransactionRepository.save(tellerTransactionEntity);
+      this.tellerTransactionProcessor.saveQuotedCharges(savedTellerTransaction, tellerTransactionCosts);
 
       if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
-        final Cheque cheque = tellerTransaction.getCheque();
-        final ChequeEntity chequeEntity = new ChequeEntity();
-        chequeEntity.setTellerTransactionId(savedTellerTransaction.getId());
-        chequeEntity.setChequeNumber(cheque.getMicr().getChequeNumber());
-        chequeEntity.setBranchSortCode(cheque.getMicr().getBranchSortCode());
-        chequeEntity.setAccountNumber(cheque.getMicr().getAccountNumber());
-        chequeEntity.setDrawee(cheque.getDrawee());
-        chequeEntity.setDrawer(cheque.getDrawer());
-        chequeEntity.setPayee(cheque.getPayee());
-        chequeEntity.setDateIssued(Date.valueOf(DateConverter.dateFromIsoString(cheque.getDateIssued())));
-        chequeEntity.setAmount(cheque.getAmount());
-        chequeEntity.setOpenCheque(cheque.isOpenCheque());
-        this.chequeRepository.save(chequeEntity);
+        final ChequeEntity chequeEntity =
+            this.chequeRepository.save(this.mapCheque(savedTellerTransaction, tellerTransaction.getCheque()));
+        this.chequeRegistry.register(chequeEntity);
       }
 
-      return this.tellerTransactionProcessor.getCosts(tellerTransaction);
+      return tellerTransactionCosts;
     } else {
       this.logger.warn("Teller {} not found.", tellerCode);
     }
     return null;
   }
 
+  /**
+   * Stores all transactions of the batch in one database transaction, then confirms each of
+   * them in a database transaction of its own; a transaction that can not be confirmed stays
+   * pending and does not take the others down with it.
+   */
+  @CommandHandler
+  @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.POST_TRANSACTION_BATCH)
+  public TellerTransactionBatchResult process(final PostTellerTransactionBatchCommand postTellerTransactionBatchCommand) {
+    final List<TellerTransaction> tellerTransactions = postTellerTransactionBatchCommand.tellerTransactions();
+    final ArrayList<TellerTransactionCosts> tellerTransactionCosts = new ArrayList<>(tellerTransactions.size());
+    final List<TellerTransactionEntity> savedTellerTransactions = this.transactionTemplate.execute(transactionStatus ->
+        this.initialize(postTellerTransactionBatchCommand, tellerTransactionCosts));
+
+    final ArrayList<TellerTransactionOutcome> outcomes = new ArrayList<>(tellerTransactions.size());
+    for (int i = 0; i < tellerTransactions.size(); i++) {
+      final TellerTransaction tellerTransaction = tellerTransactions.get(i);
+      final Long tellerTransactionId = savedTellerTransactions.get(i).getId();
+
+      final TellerTransactionOutcome tellerTransactionOutcome = new TellerTransactionOutcome();
+      tellerTransactionOutcome.setIndex(postTellerTransactionBatchCommand.indexes().get(i));
+      tellerTransactionOutcome.setTellerTransactionCosts(tellerTransactionCosts.get(i));
+      tellerTransactionOutcome.setOutcome(TellerTransaction.State.PENDING.name());
+
+      if (postTellerTransactionBatchCommand.confirm()) {
+        try {
+          tellerTransactionOutcome.setOutcome(this.transactionTemplate.execute(transactionStatus -> {
+            final TellerTransactionEntity tellerTransactionEntity = this.tellerTransactionRepository.findOne(tellerTransactionId);
+            this.confirm(tellerTransactionEntity, tellerTransaction, postTellerTransactionBatchCommand.chargesIncluded());
+            return tellerTransactionEntity.getState();
+          }));
+        } catch (final RuntimeException rex) {
+          this.logger.warn("Could not confirm teller transaction {}.", tellerTransaction.getIdentifier(), rex);
+          tellerTransactionOutcome.setMessage("Could not confirm transaction: " + rex.getMessage());
+        }
+      }
+      outcomes.add(tellerTransactionOutcome);
+    }
+
+    final TellerTransactionBatchResult tellerTransactionBatchResult = new TellerTransactionBatchResult();
+    tellerTransactionBatchResult.setOutcomes(outcomes);
+    return tellerTransactionBatchResult;
+  }
+
   @Transactional
   @CommandHandler
   @EventEmitter(selectorName = EventConstants.SELECTOR_NAME, selectorValue = EventConstants.CONFIRM_TRANSACTION)
@@ -126,11 +184,7 @@ public class TellerTransactionAggregate {
         optionalCheque.ifPresent(chequeEntity -> tellerTransaction.setCheque(ChequeMapper.map(chequeEntity)));
       }
 
-      this.tellerTransactionProcessor.process(tellerTransactionEntity.getTeller().getIdentifier(),
-          tellerTransaction, confirmTellerTransactionCommand.chargesIncluded());
-
-      tellerTransactionEntity.setState(TellerTransaction.State.CONFIRMED.name());
-      this.tellerTransactionRepository.save(tellerTransactionEntity);
+      this.confirm(tellerTransactionEntity, tellerTransaction, confirmTellerTransactionCommand.chargesIncluded());
 
       return confirmTellerTransactionCommand.tellerTransactionIdentifier();
     } else {
@@ -157,4 +211,80 @@ public class TellerTransactionAggregate {
     }
     return null;
   }
+
+  private List<TellerTransactionEntity> initialize(final PostTellerTransactionBatchCommand postTellerTransactionBatchCommand,
+                                                   final List<TellerTransactionCosts> tellerTransactionCosts) {
+    final String tellerCode = postTellerTransactionBatchCommand.tellerCode();
+    final List<TellerTransaction> tellerTransactions = postTellerTransactionBatchCommand.tellerTransactions();
+
+    // the transactions only reference the teller, no need to load the row
+    final TellerEntity tellerEntity = this.tellerCache.find(tellerCode)
+        .map(cachedTellerEntity -> this.tellerRepository.getOne(cachedTellerEntity.getId()))
+        .orElseThrow(() -> new IllegalStateException("Teller " + tellerCode + " not found."));
+
+    final ArrayList<TellerTransactionEntity> tellerTransactionEntities = new ArrayList<>(tellerTransactions.size());
+    for (int i = 0; i < tellerTransactions.size(); i++) {
+      final TellerTransaction tellerTransaction = tellerTransactions.get(i);
+      tellerTransaction.setIdentifier(RandomStringUtils.randomAlphanumeric(32));
+      tellerTransaction.setState(TellerTransaction.State.PENDING.name());
+      final TellerTransactionEntity tellerTransactionEntity = TellerTransactionMapper.map(tellerTransaction);
+      tellerTransactionEntity.setTeller(tellerEntity);
+
+      final TellerTransactionCosts quotedCosts = postTellerTransactionBatchCommand.quotedCosts().get(i);
+      if (quotedCosts != null) {
+        quotedCosts.setTellerTransactionIdentifier(tellerTransaction.getIdentifier());
+        tellerTransactionEntity.setCostsTotalAmount(quotedCosts.getTotalAmount());
+        tellerTransactionCosts.add(quotedCosts);
+      } else {
+        tellerTransactionCosts.add(this.tellerTransactionProcessor.quoteCosts(tellerTransactionEntity, tellerTransaction));
+      }
+      tellerTransactionEntities.add(tellerTransactionEntity);
+    }
+    final List<TellerTransactionEntity> savedTellerTransactions =
+        this.tellerTransactionRepository.save(tellerTransactionEntities);
+
+    final ArrayList<ChequeEntity> chequeEntities = new ArrayList<>();
+    for (int i = 0; i < tellerTransactions.size(); i++) {
+      final TellerTransaction tellerTransaction = tellerTransactions.get(i);
+      this.tellerTransactionProcessor.saveQuotedCharges(savedTellerTransactions.get(i), tellerTransactionCosts.get(i));
+      if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
+        chequeEntities.add(this.mapCheque(savedTellerTransactions.get(i), tellerTransaction.getCheque()));
+      }
+    }
+    if (!chequeEntities.isEmpty()) {
+      this.chequeRepository.save(chequeEntities).forEach(this.chequeRegistry::register);
+    }
+
+    return savedTellerTransactions;
+  }
+
+  private void confirm(final TellerTransactionEntity tellerTransactionEntity, final TellerTransaction tellerTransaction,
+                       final boolean chargesIncluded) {
+    this.tellerTransactionProcessor.process(tellerTransactionEntity.getTeller().getIdentifier(),
+        tellerTransaction, chargesIncluded);
+
+    if (this.tellerTransactionOutbox.hasPendingMessages(tellerTransactionEntity.getIdentifier())) {
+      tellerTransactionEntity.setState(TellerTransaction.State.CONFIRMING.name());
+      this.tellerTransactionOutbox.dispatchAfterCommit(tellerTransactionEntity.getIdentifier());
+    } else {
+      tellerTransactionEntity.setState(TellerTransaction.State.CONFIRMED.name());
+    }
+    this.tellerTransactionRepository.save(tellerTransactionEntity);
+  }
+
+  private ChequeEntity mapCheque(final TellerTransactionEntity tellerTransactionEntity, final Cheque cheque) {
+    final ChequeEntity chequeEntity = new ChequeEntity();
+    chequeEntity.setTellerTransactionId(tellerTransactionEntity.getId());
+    chequeEntity.setChequeNumber(cheque.getMicr().getChequeNumber());
+    chequeEntity.setBranchSortCode(cheque.getMicr().getBranchSortCode());
+    chequeEntity.setAccountNumber(cheque.getMicr().getAccountNumber());
+    chequeEntity.setDrawee(cheque.getDrawee());
+    chequeEntity.setDrawer(cheque.getDrawer());
+    chequeEntity.setPayee(cheque.getPayee());
+    chequeEntity.setDateIssued(Date.valueOf(DateConverter.dateFromIsoString(cheque.getDateIssued())));
+    chequeEntity.setAmount(cheque.getAmount());
+    chequeEntity.setOpenCheque(cheque.isOpenCheque());
+    chequeEntity.setClearingState(Cheque.ClearingState.PENDING.name());
+    return chequeEntity;
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.listener;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.accounting.api.v1.EventConstants;
+import org.apache.fineract.cn.lang.AutoTenantContext;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountAliasIndex;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountCache;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AccountingEventListener {
+
+  private static final String SUBSCRIPTION = org.apache.fineract.cn.teller.api.v1.EventConstants.DESTINATION;
+
+  private final Logger logger;
+  private final AccountAliasIndex accountAliasIndex;
+  private final AccountCache accountCache;
+  private final Gson gson;
+
+  @Autowired
+  public AccountingEventListener(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                 final AccountAliasIndex accountAliasIndex,
+                                 final AccountCache accountCache) {
+    super();
+    this.logger = logger;
+    this.accountAliasIndex = accountAliasIndex;
+    this.accountCache = accountCache;
+    this.gson = new Gson();
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_PUT_ACCOUNT,
+      subscription = AccountingEventListener.SUBSCRIPTION
+  )
+  public void onChangeAccount(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                              final String payload) {
+    this.evict(tenant, payload, true);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_DELETE_ACCOUNT,
+      subscription = AccountingEventListener.SUBSCRIPTION
+  )
+  public void onDeleteAccount(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                              final String payload) {
+    this.evict(tenant, payload, true);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_CLOSE_ACCOUNT,
+      subscription = AccountingEventListener.SUBSCRIPTION
+  )
+  public void onCloseAccount(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                             final String payload) {
+    this.evict(tenant, payload, false);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_LOCK_ACCOUNT,
+      subscription = AccountingEventListener.SUBSCRIPTION
+  )
+  public void onLockAccount(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                            final String payload) {
+    this.evict(tenant, payload, false);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_UNLOCK_ACCOUNT,
+      subscription = AccountingEventListener.SUBSCRIPTION
+  )
+  public void onUnlockAccount(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                              final String payload) {
+    this.evict(tenant, payload, false);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_REOPEN_ACCOUNT,
+      subscription = AccountingEventListener.SUBSCRIPTION
+  )
+  public void onReopenAccount(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                              final String payload) {
+    this.evict(tenant, payload, false);
+  }
+
+  private void evict(final String tenant, final String payload, final boolean aliasChanged) {
+    final String accountIdentifier = this.gson.fromJson(payload, String.class);
+    try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+      this.accountCache.invalidate(accountIdentifier);
+      if (aliasChanged) {
+        this.accountAliasIndex.findAlternativeAccountNumbers(accountIdentifier)
+            .forEach(this.accountCache::invalidate);
+        this.accountAliasIndex.evict(accountIdentifier);
+      }
+    }
+    this.logger.debug("Account {} of tenant {} evicted.", accountIdentifier, tenant);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.listener;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.deposit.api.v1.EventConstants;
+import org.apache.fineract.cn.lang.AutoTenantContext;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.service.helper.DepositProductCatalogue;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DepositEventListener {
+
+  private static final String SUBSCRIPTION = org.apache.fineract.cn.teller.api.v1.EventConstants.DESTINATION;
+
+  private final Logger logger;
+  private final DepositProductCatalogue depositProductCatalogue;
+  private final Gson gson;
+
+  @Autowired
+  public DepositEventListener(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                              final DepositProductCatalogue depositProductCatalogue) {
+    super();
+    this.logger = logger;
+    this.depositProductCatalogue = depositProductCatalogue;
+    this.gson = new Gson();
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_PUT_PRODUCT_DEFINITION,
+      subscription = DepositEventListener.SUBSCRIPTION
+  )
+  public void onChangeProductDefinition(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                        final String payload) {
+    this.evictProduct(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_DELETE_PRODUCT_DEFINITION,
+      subscription = DepositEventListener.SUBSCRIPTION
+  )
+  public void onDeleteProductDefinition(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                        final String payload) {
+    this.evictProduct(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_POST_PRODUCT_DEFINITION_COMMAND,
+      subscription = DepositEventListener.SUBSCRIPTION
+  )
+  public void onProductDefinitionCommand(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                         final String payload) {
+    this.evictProduct(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_POST_PRODUCT_ACTION,
+      subscription = DepositEventListener.SUBSCRIPTION
+  )
+  public void onCreateAction(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                             final String payload) {
+    try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+      this.depositProductCatalogue.invalidateAll();
+    }
+    this.logger.debug("Product catalogue of tenant {} evicted.", tenant);
+  }
+
+  private void evictProduct(final String tenant, final String payload) {
+    final String productIdentifier = this.gson.fromJson(payload, String.class);
+    try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+      this.depositProductCatalogue.invalidateProduct(productIdentifier);
+    }
+    this.logger.debug("Product {} of tenant {} evicted.", productIdentifier, tenant);
+  }
+}
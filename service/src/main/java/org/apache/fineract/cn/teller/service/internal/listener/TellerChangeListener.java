@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.listener;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.lang.AutoTenantContext;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.api.v1.EventConstants;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatchResult;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerOutcome;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts tellers changed by any instance of this service from the local {@link TellerCache}.
+ */
+@Component
+public class TellerChangeListener {
+
+  private static final String SUBSCRIPTION = EventConstants.DESTINATION;
+
+  private final Logger logger;
+  private final TellerCache tellerCache;
+  private final Gson gson;
+
+  @Autowired
+  public TellerChangeListener(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                              final TellerCache tellerCache) {
+    super();
+    this.logger = logger;
+    this.tellerCache = tellerCache;
+    this.gson = new Gson();
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_PUT_TELLER,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onChangeTeller(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                             final String payload) {
+    this.evict(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_POST_TELLER_BATCH,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onPostTellerBatch(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                final String payload) {
+    final TellerBatchResult tellerBatchResult = this.gson.fromJson(payload, TellerBatchResult.class);
+    if (tellerBatchResult == null || tellerBatchResult.getOutcomes() == null) {
+      return;
+    }
+    try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+      tellerBatchResult.getOutcomes().stream()
+          .filter(tellerOutcome -> TellerOutcome.Outcome.CHANGED.name().equals(tellerOutcome.getOutcome()))
+          .forEach(tellerOutcome -> this.tellerCache.invalidate(tellerOutcome.getCode()));
+    }
+    this.logger.debug("Teller batch of tenant {} posted.", tenant);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_OPEN_TELLER,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onOpenTeller(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                           final String payload) {
+    this.evict(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_CLOSE_TELLER,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onCloseTeller(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                            final String payload) {
+    this.evict(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_ACTIVATE_TELLER,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onActivateTeller(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                               final String payload) {
+    this.evict(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_PAUSE_TELLER,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onPauseTeller(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                            final String payload) {
+    this.evict(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_AUTHENTICATE_TELLER,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onAuthenticateTeller(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                   final String payload) {
+    this.evict(tenant, payload);
+  }
+
+  @JmsListener(
+      destination = EventConstants.DESTINATION,
+      selector = EventConstants.SELECTOR_DELETE_TELLER,
+      subscription = TellerChangeListener.SUBSCRIPTION
+  )
+  public void onDeleteTeller(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                             final String payload) {
+    this.evict(tenant, payload);
+  }
+
+  private void evict(final String tenant, final String payload) {
+    final String tellerCode = this.gson.fromJson(payload, String.class);
+    if (tellerCode == null) {
+      return;
+    }
+    try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+      this.tellerCache.invalidate(tellerCode);
+    }
+    this.logger.debug("Teller {} of tenant {} changed.", tellerCode, tenant);
+  }
+}
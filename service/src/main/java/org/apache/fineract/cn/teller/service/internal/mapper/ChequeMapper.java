@@ -62,6 +62,15 @@ public class ChequeMapper {
     cheque.setDateIssued(DateConverter.toIsoString(chequeEntity.getDateIssued().toLocalDate()));
     cheque.setAmount(chequeEntity.getAmount());
     cheque.setOpenCheque(chequeEntity.getOpenCheque());
+    cheque.setClearingState(chequeEntity.getClearingState());
     return cheque;
   }
+
+  public static MICR map(final org.apache.fineract.cn.cheque.api.v1.domain.MICR chequeMicr) {
+    final MICR micr = new MICR();
+    micr.setChequeNumber(chequeMicr.getChequeNumber());
+    micr.setBranchSortCode(chequeMicr.getBranchSortCode());
+    micr.setAccountNumber(chequeMicr.getAccountNumber());
+    return micr;
+  }
 }
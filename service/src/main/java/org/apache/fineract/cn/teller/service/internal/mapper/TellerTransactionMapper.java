@@ -41,6 +41,7 @@ public class TellerTransactionMapper {
     tellerTransaction.setAmount(tellerTransactionEntity.getAmount());
     tellerTransaction.setClerk(tellerTransactionEntity.getClerk());
     tellerTransaction.setState(tellerTransactionEntity.getState());
+    tellerTransaction.setFollowUpError(tellerTransactionEntity.getFollowUpError());
 
     return tellerTransaction;
   }
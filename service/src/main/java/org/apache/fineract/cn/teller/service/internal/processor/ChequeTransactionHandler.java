@@ -22,10 +22,8 @@ import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
 import org.apache.fineract.cn.teller.service.internal.mapper.ChequeMapper;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
-import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
-import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
-import org.apache.fineract.cn.teller.service.internal.service.helper.ChequeService;
-import org.apache.fineract.cn.teller.service.internal.service.helper.DepositAccountManagementService;
+import org.apache.fineract.cn.teller.service.internal.service.TellerBalanceService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
 import java.util.Optional;
 import org.apache.fineract.cn.cheque.api.v1.domain.ChequeTransaction;
 import org.slf4j.Logger;
@@ -37,35 +35,39 @@ import org.springframework.stereotype.Component;
 public class ChequeTransactionHandler {
 
   private final Logger logger;
-  private final ChequeService chequeService;
-  private final TellerRepository tellerRepository;
-  private final AccountingService accountingService;
-  private final DepositAccountManagementService depositAccountManagementService;
+  private final TellerCache tellerCache;
+  private final TellerBalanceService tellerBalanceService;
+  private final TellerTransactionOutbox tellerTransactionOutbox;
 
   @Autowired
   public ChequeTransactionHandler(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
-                                  final ChequeService chequeService,
-                                  final TellerRepository tellerRepository,
-                                  final AccountingService accountingService,
-                                  final DepositAccountManagementService depositAccountManagementService) {
+                                  final TellerCache tellerCache,
+                                  final TellerBalanceService tellerBalanceService,
+                                  final TellerTransactionOutbox tellerTransactionOutbox) {
     super();
-    this.logger = logger;this.chequeService = chequeService;
-    this.tellerRepository = tellerRepository;
-    this.accountingService = accountingService;
-    this.depositAccountManagementService = depositAccountManagementService;
+    this.logger = logger;
+    this.tellerCache = tellerCache;
+    this.tellerBalanceService = tellerBalanceService;
+    this.tellerTransactionOutbox = tellerTransactionOutbox;
   }
 
+  /**
+   * Records the received cheque at the teller and hands clearing over to the outbox; the creditor account
+   * gets resolved, the cheque gets posted to the cheque service and the product instance gets notified
+   * asynchronously after the confirmation has been committed.
+   */
   public void processCheque(final String tellerCode, final TellerTransaction tellerTransaction) {
-    final Optional<TellerEntity> optionalTeller = this.tellerRepository.findByIdentifier(tellerCode);
+    final Optional<TellerEntity> optionalTeller = this.tellerCache.find(tellerCode);
     final ChequeTransaction chequeTransaction = new ChequeTransaction();
     optionalTeller.ifPresent(tellerEntity ->
         chequeTransaction.setChequesReceivableAccount(tellerEntity.getChequesReceivableAccount()));
-    chequeTransaction.setCreditorAccountNumber(
-        this.accountingService.resolveAccountIdentifier(tellerTransaction.getCustomerAccountIdentifier())
-    );
+    chequeTransaction.setCreditorAccountNumber(tellerTransaction.getCustomerAccountIdentifier());
     chequeTransaction.setCheque(ChequeMapper.map(tellerTransaction.getCheque()));
 
-    this.chequeService.process(chequeTransaction);
-    this.depositAccountManagementService.transactedProductInstance(tellerTransaction.getCustomerAccountIdentifier());
+    optionalTeller.ifPresent(tellerEntity ->
+        this.tellerBalanceService.recordChequeReceived(tellerEntity, tellerTransaction.getAmount()));
+    this.tellerTransactionOutbox.clearCheque(tellerTransaction.getIdentifier(), chequeTransaction);
+    this.tellerTransactionOutbox.transactedProductInstance(tellerTransaction.getIdentifier(),
+        tellerTransaction.getCustomerAccountIdentifier());
   }
 }
@@ -23,9 +23,10 @@ import org.apache.fineract.cn.teller.api.v1.domain.Charge;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
-import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
-import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
+import org.apache.fineract.cn.teller.service.internal.service.TellerBalanceService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountCache;
 import org.apache.fineract.cn.teller.service.internal.service.helper.DepositAccountManagementService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
@@ -47,20 +48,26 @@ import org.springframework.stereotype.Component;
 public class DepositTransactionHandler {
 
   private final Logger logger;
-  private final AccountingService accountingService;
+  private final AccountCache accountCache;
   private final DepositAccountManagementService depositAccountManagementService;
-  private final TellerRepository tellerRepository;
+  private final TellerCache tellerCache;
+  private final TellerBalanceService tellerBalanceService;
+  private final TellerTransactionOutbox tellerTransactionOutbox;
 
   @Autowired
   public DepositTransactionHandler(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
-                                   final AccountingService accountingService,
+                                   final AccountCache accountCache,
                                    final DepositAccountManagementService depositAccountManagementService,
-                                   final TellerRepository tellerRepository) {
+                                   final TellerCache tellerCache,
+                                   final TellerBalanceService tellerBalanceService,
+                                   final TellerTransactionOutbox tellerTransactionOutbox) {
     super();
     this.logger = logger;
-    this.accountingService = accountingService;
+    this.accountCache = accountCache;
     this.depositAccountManagementService = depositAccountManagementService;
-    this.tellerRepository = tellerRepository;
+    this.tellerCache = tellerCache;
+    this.tellerBalanceService = tellerBalanceService;
+    this.tellerTransactionOutbox = tellerTransactionOutbox;
   }
 
   public TellerTransactionCosts getTellerTransactionCosts(final TellerTransaction tellerTransaction) {
@@ -83,15 +90,14 @@ public class DepositTransactionHandler {
   }
 
   public void processTransfer(final String tellerCode, final TellerTransaction tellerTransaction,
-                              final boolean chargesIncluded) {
+                              final boolean chargesIncluded, final TellerTransactionCosts tellerTransactionCosts) {
     final TellerEntity tellerEntity = getTellerEntity(tellerCode);
-    final TellerTransactionCosts tellerTransactionCosts = this.getTellerTransactionCosts(tellerTransaction);
 
     if (tellerTransactionCosts.getTotalAmount().compareTo(BigDecimal.ZERO) ==0) {
       return;
     }
 
-    final String resolvedCustomerAccount = this.accountingService.resolveAccountIdentifier(tellerTransaction.getCustomerAccountIdentifier());
+    final String resolvedCustomerAccount = this.accountCache.resolveAccountIdentifier(tellerTransaction.getCustomerAccountIdentifier());
 
     final JournalEntry journalEntry = this.prepareJournalEntry(tellerTransaction);
     final HashSet<Debtor> debtors = new HashSet<>();
@@ -120,20 +126,20 @@ public class DepositTransactionHandler {
 
     creditors.addAll(this.createChargeCreditors(tellerTransactionCosts));
 
-    this.accountingService.postJournalEntry(journalEntry);
-    this.depositAccountManagementService.transactedProductInstance(resolvedCustomerAccount);
+    this.tellerTransactionOutbox.postJournalEntry(tellerTransaction.getIdentifier(), journalEntry);
+    this.tellerBalanceService.record(tellerEntity, journalEntry);
+    this.tellerTransactionOutbox.transactedProductInstance(tellerTransaction.getIdentifier(), resolvedCustomerAccount);
   }
 
   public void processCashDeposit(final String tellerCode, final TellerTransaction tellerTransaction,
-                                 final boolean chargesIncluded) {
+                                 final boolean chargesIncluded, final TellerTransactionCosts tellerTransactionCosts) {
     final TellerEntity tellerEntity = getTellerEntity(tellerCode);
-    final TellerTransactionCosts tellerTransactionCosts = this.getTellerTransactionCosts(tellerTransaction);
 
     if (tellerTransactionCosts.getTotalAmount().compareTo(BigDecimal.ZERO) == 0) {
       return;
     }
 
-    final String resolvedCustomerAccount = this.accountingService.resolveAccountIdentifier(tellerTransaction.getCustomerAccountIdentifier());
+    final String resolvedCustomerAccount = this.accountCache.resolveAccountIdentifier(tellerTransaction.getCustomerAccountIdentifier());
 
     final JournalEntry journalEntry = this.prepareJournalEntry(tellerTransaction);
     final HashSet<Debtor> debtors = new HashSet<>();
@@ -161,20 +167,20 @@ public class DepositTransactionHandler {
 
     creditors.addAll(this.createChargeCreditors(tellerTransactionCosts));
 
-    this.accountingService.postJournalEntry(journalEntry);
-    this.depositAccountManagementService.transactedProductInstance(resolvedCustomerAccount);
+    this.tellerTransactionOutbox.postJournalEntry(tellerTransaction.getIdentifier(), journalEntry);
+    this.tellerBalanceService.record(tellerEntity, journalEntry);
+    this.tellerTransactionOutbox.transactedProductInstance(tellerTransaction.getIdentifier(), resolvedCustomerAccount);
   }
 
   public void processCashWithdrawal(final String tellerCode, final TellerTransaction tellerTransaction,
-                                    final boolean chargesIncluded) {
+                                    final boolean chargesIncluded, final TellerTransactionCosts tellerTransactionCosts) {
     final TellerEntity tellerEntity = getTellerEntity(tellerCode);
-    final TellerTransactionCosts tellerTransactionCosts = this.getTellerTransactionCosts(tellerTransaction);
 
     if (tellerTransactionCosts.getTotalAmount().compareTo(BigDecimal.ZERO) == 0) {
       return;
     }
 
-    final String resolvedCustomerAccount = this.accountingService.resolveAccountIdentifier(tellerTransaction.getCustomerAccountIdentifier());
+    final String resolvedCustomerAccount = this.accountCache.resolveAccountIdentifier(tellerTransaction.getCustomerAccountIdentifier());
 
     final JournalEntry journalEntry = this.prepareJournalEntry(tellerTransaction);
 
@@ -206,37 +212,41 @@ public class DepositTransactionHandler {
 
     creditors.addAll(this.createChargeCreditors(tellerTransactionCosts));
 
-    this.accountingService.postJournalEntry(journalEntry);
-    this.depositAccountManagementService.transactedProductInstance(resolvedCustomerAccount);
+    this.tellerTransactionOutbox.postJournalEntry(tellerTransaction.getIdentifier(), journalEntry);
+    this.tellerBalanceService.record(tellerEntity, journalEntry);
+    this.tellerTransactionOutbox.transactedProductInstance(tellerTransaction.getIdentifier(), resolvedCustomerAccount);
   }
 
   public void processDepositAccountClosing(final String tellerCode, final TellerTransaction tellerTransaction,
-                                           final boolean chargesIncluded) {
-    this.processCashWithdrawal(tellerCode, tellerTransaction, chargesIncluded);
+                                           final boolean chargesIncluded, final TellerTransactionCosts tellerTransactionCosts) {
+    this.processCashWithdrawal(tellerCode, tellerTransaction, chargesIncluded, tellerTransactionCosts);
 
-    this.depositAccountManagementService.closeProductInstance(tellerTransaction.getCustomerAccountIdentifier());
-
-    this.accountingService.closeAccount(tellerTransaction.getCustomerAccountIdentifier());
+    this.tellerTransactionOutbox.closeProductInstance(tellerTransaction.getIdentifier(),
+        tellerTransaction.getCustomerAccountIdentifier());
+    this.tellerTransactionOutbox.closeAccount(tellerTransaction.getIdentifier(),
+        tellerTransaction.getCustomerAccountIdentifier());
   }
 
   public void processDepositAccountOpening(final String tellerCode, final TellerTransaction tellerTransaction,
-                                            final boolean chargesIncluded) {
+                                            final boolean chargesIncluded, final TellerTransactionCosts tellerTransactionCosts) {
     final ProductInstance productInstances =
         this.depositAccountManagementService.findProductInstance(tellerTransaction.getCustomerAccountIdentifier());
 
     final ProductDefinition productDefinition =
         this.depositAccountManagementService.findProductDefinition(productInstances.getProductIdentifier());
 
-    this.processCashDeposit(tellerCode, tellerTransaction, chargesIncluded);
+    this.processCashDeposit(tellerCode, tellerTransaction, chargesIncluded, tellerTransactionCosts);
 
     if ((tellerTransaction.getAmount().doubleValue() + productInstances.getBalance()) >= productDefinition.getMinimumBalance()) {
-      this.depositAccountManagementService.activateProductInstance(tellerTransaction.getCustomerAccountIdentifier());
-      this.accountingService.openAccount(tellerTransaction.getCustomerAccountIdentifier());
+      this.tellerTransactionOutbox.activateProductInstance(tellerTransaction.getIdentifier(),
+          tellerTransaction.getCustomerAccountIdentifier());
+      this.tellerTransactionOutbox.openAccount(tellerTransaction.getIdentifier(),
+          tellerTransaction.getCustomerAccountIdentifier());
     }
   }
 
   private TellerEntity getTellerEntity(final String tellerCode) {
-    final Optional<TellerEntity> optionalTeller = this.tellerRepository.findByIdentifier(tellerCode);
+    final Optional<TellerEntity> optionalTeller = this.tellerCache.find(tellerCode);
     if (!optionalTeller.isPresent()) {
       this.logger.warn("Teller {} not found.", tellerCode);
       throw new IllegalStateException("Teller not found.");
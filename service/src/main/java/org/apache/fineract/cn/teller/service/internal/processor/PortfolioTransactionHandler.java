@@ -23,8 +23,9 @@ import org.apache.fineract.cn.teller.api.v1.domain.Charge;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
-import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
+import org.apache.fineract.cn.teller.service.internal.service.TellerBalanceService;
 import org.apache.fineract.cn.teller.service.internal.service.helper.PortfolioService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
@@ -39,15 +40,18 @@ public class PortfolioTransactionHandler {
 
   private final Logger logger;
   private final PortfolioService portfolioService;
-  private final TellerRepository tellerRepository;
+  private final TellerCache tellerCache;
+  private final TellerBalanceService tellerBalanceService;
 
   public PortfolioTransactionHandler(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                                      final PortfolioService portfolioService,
-                                     final TellerRepository tellerRepository) {
+                                     final TellerCache tellerCache,
+                                     final TellerBalanceService tellerBalanceService) {
     super();
     this.logger = logger;
     this.portfolioService = portfolioService;
-    this.tellerRepository = tellerRepository;
+    this.tellerCache = tellerCache;
+    this.tellerBalanceService = tellerBalanceService;
   }
 
   public TellerTransactionCosts getTellerTransactionCosts(final TellerTransaction tellerTransaction) {
@@ -74,7 +78,7 @@ public class PortfolioTransactionHandler {
   }
 
   public void processRepayment(final String tellerCode, final TellerTransaction tellerTransaction) {
-    final Optional<TellerEntity> optionalTellerEntity = this.tellerRepository.findByIdentifier(tellerCode);
+    final Optional<TellerEntity> optionalTellerEntity = this.tellerCache.find(tellerCode);
     if (optionalTellerEntity.isPresent()) {
       final TellerEntity tellerEntity = optionalTellerEntity.get();
 
@@ -84,6 +88,7 @@ public class PortfolioTransactionHandler {
           tellerEntity.getTellerAccountIdentifier(),
           tellerTransaction.getAmount()
       );
+      this.tellerBalanceService.recordCashReceived(tellerEntity, tellerTransaction.getAmount());
 
     } else {
       throw ServiceException.notFound("Teller {0} not found." , tellerCode);
@@ -0,0 +1,445 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.processor;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.api.v1.domain.Cheque;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.service.internal.mapper.ChequeMapper;
+import org.apache.fineract.cn.teller.service.internal.repository.ChequeRepository;
+import org.apache.fineract.cn.teller.service.internal.repository.OutboxMessageEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.OutboxMessageRepository;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionRepository;
+import org.apache.fineract.cn.teller.service.internal.service.TellerBalanceService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountCache;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.ChequeService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.DepositAccountManagementService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.JournalEntryPoster;
+import org.apache.fineract.cn.teller.service.internal.service.helper.ProvisionedTenants;
+import org.apache.fineract.cn.teller.service.internal.util.ContextPropagatingExecutor;
+import org.apache.fineract.cn.teller.service.internal.util.MICRParser;
+import org.apache.fineract.cn.teller.service.internal.util.RemoteCallFailures;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.cheque.api.v1.domain.ChequeTransaction;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transactional outbox for the ledger, deposit and cheque clearing side effects of a confirmed teller
+ * transaction, delivered in order after commit and retried with back off.
+ */
+@Component
+public class TellerTransactionOutbox {
+
+  enum Action {
+    POST_JOURNAL_ENTRY,
+    CLEAR_CHEQUE,
+    TRANSACTED_PRODUCT_INSTANCE,
+    CLOSE_PRODUCT_INSTANCE,
+    CLOSE_ACCOUNT,
+    ACTIVATE_PRODUCT_INSTANCE,
+    OPEN_ACCOUNT
+  }
+
+  enum State {
+    PENDING,
+    DELIVERED,
+    FAILED
+  }
+
+  private static final int MAXIMUM_BACK_OFF_IN_SECONDS = 300;
+
+  private final Logger logger;
+  private final OutboxMessageRepository outboxMessageRepository;
+  private final TellerTransactionRepository tellerTransactionRepository;
+  private final TellerRepository tellerRepository;
+  private final TellerBalanceService tellerBalanceService;
+  private final AccountingService accountingService;
+  private final JournalEntryPoster journalEntryPoster;
+  private final ChequeService chequeService;
+  private final ChequeRepository chequeRepository;
+  private final DepositAccountManagementService depositAccountManagementService;
+  private final AccountCache accountCache;
+  private final ContextPropagatingExecutor remoteCallExecutor;
+  private final ProvisionedTenants provisionedTenants;
+  private final int maximumAttempts;
+  private final int sweepSize;
+  private final long sweepDelay;
+  private final long lease;
+  private final Gson gson;
+
+  @Autowired
+  public TellerTransactionOutbox(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                 final OutboxMessageRepository outboxMessageRepository,
+                                 final TellerTransactionRepository tellerTransactionRepository,
+                                 final TellerRepository tellerRepository,
+                                 final TellerBalanceService tellerBalanceService,
+                                 final AccountingService accountingService,
+                                 final JournalEntryPoster journalEntryPoster,
+                                 final ChequeService chequeService,
+                                 final ChequeRepository chequeRepository,
+                                 final DepositAccountManagementService depositAccountManagementService,
+                                 final AccountCache accountCache,
+                                 final ContextPropagatingExecutor remoteCallExecutor,
+                                 final ProvisionedTenants provisionedTenants,
+                                 @Value("${teller.outbox.maximumAttempts:10}") final int maximumAttempts,
+                                 @Value("${teller.outbox.sweepSize:50}") final int sweepSize,
+                                 @Value("${teller.outbox.sweepDelayInSeconds:60}") final long sweepDelay,
+                                 @Value("${teller.outbox.leaseInSeconds:300}") final long lease) {
+    super();
+    this.logger = logger;
+    this.outboxMessageRepository = outboxMessageRepository;
+    this.tellerTransactionRepository = tellerTransactionRepository;
+    this.tellerRepository = tellerRepository;
+    this.tellerBalanceService = tellerBalanceService;
+    this.accountingService = accountingService;
+    this.journalEntryPoster = journalEntryPoster;
+    this.chequeService = chequeService;
+    this.chequeRepository = chequeRepository;
+    this.depositAccountManagementService = depositAccountManagementService;
+    this.accountCache = accountCache;
+    this.remoteCallExecutor = remoteCallExecutor;
+    this.provisionedTenants = provisionedTenants;
+    this.maximumAttempts = Math.max(1, maximumAttempts);
+    this.sweepSize = Math.max(1, sweepSize);
+    this.sweepDelay = sweepDelay;
+    this.lease = Math.max(1L, lease);
+    this.gson = new Gson();
+  }
+
+  public void postJournalEntry(final String transactionIdentifier, final JournalEntry journalEntry) {
+    this.enqueue(transactionIdentifier, Action.POST_JOURNAL_ENTRY, this.gson.toJson(journalEntry));
+  }
+
+  public void clearCheque(final String transactionIdentifier, final ChequeTransaction chequeTransaction) {
+    this.enqueue(transactionIdentifier, Action.CLEAR_CHEQUE, this.gson.toJson(chequeTransaction));
+  }
+
+  public void transactedProductInstance(final String transactionIdentifier, final String accountIdentifier) {
+    this.enqueue(transactionIdentifier, Action.TRANSACTED_PRODUCT_INSTANCE, accountIdentifier);
+  }
+
+  public void closeProductInstance(final String transactionIdentifier, final String accountIdentifier) {
+    this.enqueue(transactionIdentifier, Action.CLOSE_PRODUCT_INSTANCE, accountIdentifier);
+  }
+
+  public void closeAccount(final String transactionIdentifier, final String accountIdentifier) {
+    this.enqueue(transactionIdentifier, Action.CLOSE_ACCOUNT, accountIdentifier);
+  }
+
+  public void activateProductInstance(final String transactionIdentifier, final String accountIdentifier) {
+    this.enqueue(transactionIdentifier, Action.ACTIVATE_PRODUCT_INSTANCE, accountIdentifier);
+  }
+
+  public void openAccount(final String transactionIdentifier, final String accountIdentifier) {
+    this.enqueue(transactionIdentifier, Action.OPEN_ACCOUNT, accountIdentifier);
+  }
+
+  public boolean hasPendingMessages(final String transactionIdentifier) {
+    return this.outboxMessageRepository.countByTransactionIdentifierAndState(
+        transactionIdentifier, State.PENDING.name()) > 0L;
+  }
+
+  public boolean hasPendingMessages(final TellerEntity tellerEntity) {
+    return this.outboxMessageRepository.countByTellerAndState(tellerEntity, State.PENDING.name()) > 0L;
+  }
+
+  /**
+   * Sums what the journal entries not yet posted will debit from the account; the ledger balance
+   * does not show these yet.
+   */
+  public BigDecimal pendingDebits(final String accountIdentifier) {
+    return this.outboxMessageRepository.findByActionAndStateAndPayloadContaining(
+        Action.POST_JOURNAL_ENTRY.name(), State.PENDING.name(), accountIdentifier)
+        .stream()
+        .map(outboxMessageEntity -> this.gson.fromJson(outboxMessageEntity.getPayload(), JournalEntry.class))
+        .filter(journalEntry -> journalEntry.getDebtors() != null)
+        .flatMap(journalEntry -> journalEntry.getDebtors().stream())
+        .filter(debtor -> accountIdentifier.equals(debtor.getAccountNumber()))
+        .map(debtor -> new BigDecimal(debtor.getAmount()))
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+  /**
+   * Starts delivery once the surrounding database transaction has been committed, so
+   * nothing is sent for a confirmation that got rolled back.
+   */
+  public void dispatchAfterCommit(final String transactionIdentifier) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          TellerTransactionOutbox.this.dispatchAsync(transactionIdentifier);
+        }
+      });
+    } else {
+      this.dispatchAsync(transactionIdentifier);
+    }
+  }
+
+  private void enqueue(final String transactionIdentifier, final Action action, final String payload) {
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+
+    final OutboxMessageEntity outboxMessageEntity = new OutboxMessageEntity();
+    outboxMessageEntity.setTransactionIdentifier(transactionIdentifier);
+    outboxMessageEntity.setAction(action.name());
+    outboxMessageEntity.setPayload(payload);
+    outboxMessageEntity.setIdempotencyKey(transactionIdentifier + ":" + action.name());
+    outboxMessageEntity.setState(State.PENDING.name());
+    outboxMessageEntity.setAttempts(0);
+    outboxMessageEntity.setNextAttemptOn(now);
+    outboxMessageEntity.setCreatedOn(now);
+    this.outboxMessageRepository.save(outboxMessageEntity);
+  }
+
+  private void dispatchAsync(final String transactionIdentifier) {
+    this.remoteCallExecutor.run(() -> this.dispatch(transactionIdentifier));
+  }
+
+  private void dispatch(final String transactionIdentifier) {
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+    if (this.outboxMessageRepository.claim(transactionIdentifier, State.PENDING.name(), now,
+        now.plusSeconds(this.lease)) == 0) {
+      return;
+    }
+
+    final List<OutboxMessageEntity> outboxMessageEntities =
+        this.outboxMessageRepository.findByTransactionIdentifierOrderByIdAsc(transactionIdentifier);
+    for (final OutboxMessageEntity outboxMessageEntity : outboxMessageEntities) {
+      if (outboxMessageEntity.getState().equals(State.DELIVERED.name())) {
+        continue;
+      }
+      if (outboxMessageEntity.getState().equals(State.FAILED.name())) {
+        return;
+      }
+
+      outboxMessageEntity.setAttempts(outboxMessageEntity.getAttempts() + 1);
+      try {
+        this.deliver(outboxMessageEntity);
+        outboxMessageEntity.setState(State.DELIVERED.name());
+        outboxMessageEntity.setLastError(null);
+        this.outboxMessageRepository.save(outboxMessageEntity);
+      } catch (final RuntimeException rex) {
+        this.retryLater(outboxMessageEntity, rex);
+        return;
+      }
+    }
+
+    this.tellerTransactionRepository.findByIdentifier(transactionIdentifier).ifPresent(tellerTransactionEntity -> {
+      if (tellerTransactionEntity.getState().equals(TellerTransaction.State.CONFIRMING.name())) {
+        tellerTransactionEntity.setState(TellerTransaction.State.CONFIRMED.name());
+        this.tellerTransactionRepository.save(tellerTransactionEntity);
+      }
+    });
+    this.updateClearingState(transactionIdentifier, Cheque.ClearingState.CLEARED);
+  }
+
+  private void deliver(final OutboxMessageEntity outboxMessageEntity) {
+    final String payload = outboxMessageEntity.getPayload();
+    switch (Action.valueOf(outboxMessageEntity.getAction())) {
+      case POST_JOURNAL_ENTRY:
+        final JournalEntry journalEntry = this.gson.fromJson(payload, JournalEntry.class);
+        // the transaction identifier is the idempotency key on the ledger side, an earlier
+        // attempt may have been booked even though its response got lost
+        if (outboxMessageEntity.getAttempts() > 1
+            && this.accountingService.journalEntryExists(journalEntry.getTransactionIdentifier())) {
+          this.logger.info("Journal entry {} already booked.", journalEntry.getTransactionIdentifier());
+          return;
+        }
+        // retried by the outbox, not by the poster
+        this.journalEntryPoster.postOnce(journalEntry);
+        break;
+      case CLEAR_CHEQUE:
+        final ChequeTransaction chequeTransaction = this.gson.fromJson(payload, ChequeTransaction.class);
+        // the cheque service knows cheques by their MICR, an earlier attempt may have been processed
+        // even though its response got lost
+        if (outboxMessageEntity.getAttempts() > 1
+            && this.chequeService.chequeExists(
+                MICRParser.toIdentifier(ChequeMapper.map(chequeTransaction.getCheque().getMicr())))) {
+          this.logger.info("Cheque of transaction {} already processed.", outboxMessageEntity.getTransactionIdentifier());
+        } else {
+          chequeTransaction.setCreditorAccountNumber(
+              this.accountCache.resolveAccountIdentifier(chequeTransaction.getCreditorAccountNumber()));
+          this.chequeService.process(chequeTransaction);
+        }
+        this.updateClearingState(outboxMessageEntity.getTransactionIdentifier(), Cheque.ClearingState.SUBMITTED);
+        break;
+      case TRANSACTED_PRODUCT_INSTANCE:
+        this.depositAccountManagementService.transactedProductInstance(payload);
+        break;
+      case CLOSE_PRODUCT_INSTANCE:
+        this.depositAccountManagementService.closeProductInstance(payload);
+        break;
+      case CLOSE_ACCOUNT:
+        this.accountingService.closeAccount(payload);
+        this.accountCache.invalidate(payload);
+        break;
+      case ACTIVATE_PRODUCT_INSTANCE:
+        this.depositAccountManagementService.activateProductInstance(payload);
+        break;
+      case OPEN_ACCOUNT:
+        this.accountingService.openAccount(payload);
+        this.accountCache.invalidate(payload);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported outbox action " + outboxMessageEntity.getAction());
+    }
+  }
+
+  private void retryLater(final OutboxMessageEntity outboxMessageEntity, final RuntimeException cause) {
+    final String error = cause.getClass().getSimpleName() + " - " + cause.getMessage();
+    outboxMessageEntity.setLastError(error.length() > 2048 ? error.substring(0, 2048) : error);
+
+    if (RemoteCallFailures.isRejection(cause)) {
+      this.fail(outboxMessageEntity);
+      this.logger.error("{} for transaction {} got rejected: {}", outboxMessageEntity.getAction(),
+          outboxMessageEntity.getTransactionIdentifier(), error);
+      return;
+    }
+
+    if (outboxMessageEntity.getAttempts() >= this.maximumAttempts) {
+      this.fail(outboxMessageEntity);
+      this.logger.error("Giving up on {} for transaction {} after {} attempts.", outboxMessageEntity.getAction(),
+          outboxMessageEntity.getTransactionIdentifier(), outboxMessageEntity.getAttempts(), cause);
+      return;
+    }
+
+    // later messages of the transaction wait for this one, they share its lease and back off
+    final long backOff = Math.min(1L << Math.min(outboxMessageEntity.getAttempts(), 16), MAXIMUM_BACK_OFF_IN_SECONDS);
+    final String transactionIdentifier = outboxMessageEntity.getTransactionIdentifier();
+    this.outboxMessageRepository.save(outboxMessageEntity);
+    this.outboxMessageRepository.reschedule(transactionIdentifier, State.PENDING.name(),
+        LocalDateTime.now(Clock.systemUTC()).plusSeconds(backOff));
+    this.logger.warn("Could not deliver {} for transaction {}, retrying in {} seconds: {}",
+        outboxMessageEntity.getAction(), transactionIdentifier, backOff, error);
+
+    // the caller's token may have expired by then
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    this.remoteCallExecutor.schedule(
+        () -> this.provisionedTenants.run(tenant, () -> this.dispatch(transactionIdentifier)), backOff, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Marks the message and all later ones of its transaction as failed. If neither journal entry nor cheque
+   * has been delivered, the teller's running totals are taken back and the transaction is moved to
+   * {@link TellerTransaction.State#FAILED}; otherwise the booking stands, so the transaction stays
+   * {@link TellerTransaction.State#CONFIRMED} and carries the error of the failed follow-up.
+   */
+  private void fail(final OutboxMessageEntity outboxMessageEntity) {
+    final String transactionIdentifier = outboxMessageEntity.getTransactionIdentifier();
+    outboxMessageEntity.setState(State.FAILED.name());
+    this.outboxMessageRepository.save(outboxMessageEntity);
+    this.outboxMessageRepository.changeState(transactionIdentifier, State.PENDING.name(), State.FAILED.name());
+
+    final boolean booked = this.outboxMessageRepository.findByTransactionIdentifierOrderByIdAsc(transactionIdentifier)
+        .stream()
+        .anyMatch(message -> message.getState().equals(State.DELIVERED.name())
+            && TellerTransactionOutbox.isBooking(Action.valueOf(message.getAction())));
+
+    this.tellerTransactionRepository.findByIdentifier(transactionIdentifier).ifPresent(tellerTransactionEntity -> {
+      if (booked) {
+        tellerTransactionEntity.setState(TellerTransaction.State.CONFIRMED.name());
+        final String followUpError = outboxMessageEntity.getAction() + " failed: " + outboxMessageEntity.getLastError();
+        tellerTransactionEntity.setFollowUpError(
+            followUpError.length() > 2048 ? followUpError.substring(0, 2048) : followUpError);
+      } else {
+        this.reverseRunningBalance(tellerTransactionEntity, outboxMessageEntity);
+        tellerTransactionEntity.setState(TellerTransaction.State.FAILED.name());
+      }
+      this.tellerTransactionRepository.save(tellerTransactionEntity);
+    });
+    this.updateClearingState(transactionIdentifier, booked ? Cheque.ClearingState.CLEARED : Cheque.ClearingState.FAILED);
+  }
+
+  private static boolean isBooking(final Action action) {
+    return action == Action.POST_JOURNAL_ENTRY || action == Action.CLEAR_CHEQUE;
+  }
+
+  private void reverseRunningBalance(final TellerTransactionEntity tellerTransactionEntity,
+                                     final OutboxMessageEntity outboxMessageEntity) {
+    final Action action = Action.valueOf(outboxMessageEntity.getAction());
+    if (!TellerTransactionOutbox.isBooking(action)) {
+      return;
+    }
+
+    final TellerEntity tellerEntity = this.tellerRepository.findOne(tellerTransactionEntity.getTeller().getId());
+    if (tellerEntity == null) {
+      return;
+    }
+
+    if (action == Action.POST_JOURNAL_ENTRY) {
+      this.tellerBalanceService.reverse(tellerEntity,
+          this.gson.fromJson(outboxMessageEntity.getPayload(), JournalEntry.class),
+          tellerTransactionEntity.getTransactionDate());
+    } else {
+      this.tellerBalanceService.reverseChequeReceived(tellerEntity, tellerTransactionEntity.getAmount(),
+          tellerTransactionEntity.getTransactionDate());
+    }
+  }
+
+  private void updateClearingState(final String transactionIdentifier, final Cheque.ClearingState clearingState) {
+    this.tellerTransactionRepository.findByIdentifier(transactionIdentifier)
+        .flatMap(tellerTransactionEntity -> this.chequeRepository.findByTellerTransactionId(tellerTransactionEntity.getId()))
+        .filter(chequeEntity -> !chequeEntity.getClearingState().equals(clearingState.name()))
+        .ifPresent(chequeEntity -> {
+          chequeEntity.setClearingState(clearingState.name());
+          this.chequeRepository.save(chequeEntity);
+        });
+  }
+
+  /**
+   * Picks up messages whose retry is overdue, because the retry scheduled in memory was
+   * lost on restart or the lease of the delivering instance ran out.
+   */
+  @Scheduled(
+      initialDelayString = "${teller.outbox.sweepIntervalInMillis:30000}",
+      fixedDelayString = "${teller.outbox.sweepIntervalInMillis:30000}"
+  )
+  public void sweep() {
+    this.provisionedTenants.forEach(this::redeliverOverdue);
+  }
+
+  private void redeliverOverdue() {
+    final LocalDateTime overdue = LocalDateTime.now(Clock.systemUTC()).minusSeconds(this.sweepDelay);
+    this.outboxMessageRepository.findByStateAndNextAttemptOnLessThanOrderByIdAsc(State.PENDING.name(), overdue,
+        new PageRequest(0, this.sweepSize))
+        .stream()
+        .map(OutboxMessageEntity::getTransactionIdentifier)
+        .distinct()
+        .forEach(this::dispatch);
+  }
+}
@@ -20,7 +20,15 @@ package org.apache.fineract.cn.teller.service.internal.processor;
 
 import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.api.v1.domain.Charge;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionChargeEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionChargeRepository;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -33,35 +41,46 @@ public class TellerTransactionProcessor {
   private final DepositTransactionHandler depositTransactionHandler;
   private final PortfolioTransactionHandler portfolioTransactionHandler;
   private final ChequeTransactionHandler chequeTransactionHandler;
+  private final TellerTransactionRepository tellerTransactionRepository;
+  private final TellerTransactionChargeRepository tellerTransactionChargeRepository;
 
   @Autowired
   public TellerTransactionProcessor(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                                     final DepositTransactionHandler depositTransactionHandler,
                                     final PortfolioTransactionHandler portfolioTransactionHandler,
-                                    final ChequeTransactionHandler chequeTransactionHandler) {
+                                    final ChequeTransactionHandler chequeTransactionHandler,
+                                    final TellerTransactionRepository tellerTransactionRepository,
+                                    final TellerTransactionChargeRepository tellerTransactionChargeRepository) {
     super();
     this.logger = logger;
     this.depositTransactionHandler = depositTransactionHandler;
     this.portfolioTransactionHandler = portfolioTransactionHandler;
     this.chequeTransactionHandler = chequeTransactionHandler;
+    this.tellerTransactionRepository = tellerTransactionRepository;
+    this.tellerTransactionChargeRepository = tellerTransactionChargeRepository;
   }
 
   public void process(final String tellerCode, final TellerTransaction tellerTransaction, final Boolean chargesIncluded) {
     switch (tellerTransaction.getTransactionType()) {
       case ServiceConstants.TX_OPEN_ACCOUNT:
-        this.depositTransactionHandler.processDepositAccountOpening(tellerCode, tellerTransaction, chargesIncluded);
+        this.depositTransactionHandler.processDepositAccountOpening(tellerCode, tellerTransaction, chargesIncluded,
+            this.getQuotedCosts(tellerTransaction));
         break;
       case ServiceConstants.TX_CLOSE_ACCOUNT:
-        this.depositTransactionHandler.processDepositAccountClosing(tellerCode, tellerTransaction, chargesIncluded);
+        this.depositTransactionHandler.processDepositAccountClosing(tellerCode, tellerTransaction, chargesIncluded,
+            this.getQuotedCosts(tellerTransaction));
         break;
       case ServiceConstants.TX_ACCOUNT_TRANSFER:
-        this.depositTransactionHandler.processTransfer(tellerCode, tellerTransaction, chargesIncluded);
+        this.depositTransactionHandler.processTransfer(tellerCode, tellerTransaction, chargesIncluded,
+            this.getQuotedCosts(tellerTransaction));
         break;
       case ServiceConstants.TX_CASH_DEPOSIT:
-        this.depositTransactionHandler.processCashDeposit(tellerCode, tellerTransaction, chargesIncluded);
+        this.depositTransactionHandler.processCashDeposit(tellerCode, tellerTransaction, chargesIncluded,
+            this.getQuotedCosts(tellerTransaction));
         break;
       case ServiceConstants.TX_CASH_WITHDRAWAL:
-        this.depositTransactionHandler.processCashWithdrawal(tellerCode, tellerTransaction, chargesIncluded);
+        this.depositTransactionHandler.processCashWithdrawal(tellerCode, tellerTransaction, chargesIncluded,
+            this.getQuotedCosts(tellerTransaction));
         break;
       case ServiceConstants.TX_REPAYMENT:
         this.portfolioTransactionHandler.processRepayment(tellerCode, tellerTransaction);
@@ -90,4 +109,72 @@ public class TellerTransactionProcessor {
     }
   }
 
+  /**
+   * Calculates the costs of a freshly initialized transaction and notes their total on the
+   * not yet saved entity, so the customer is charged exactly what was quoted once the
+   * transaction gets confirmed.
+   */
+  public TellerTransactionCosts quoteCosts(final TellerTransactionEntity tellerTransactionEntity,
+                                           final TellerTransaction tellerTransaction) {
+    final TellerTransactionCosts tellerTransactionCosts = this.getCosts(tellerTransaction);
+    tellerTransactionEntity.setCostsTotalAmount(tellerTransactionCosts.getTotalAmount());
+    return tellerTransactionCosts;
+  }
+
+  /**
+   * Stores the quoted charges of a transaction once it has been saved.
+   */
+  public void saveQuotedCharges(final TellerTransactionEntity tellerTransactionEntity,
+                                final TellerTransactionCosts tellerTransactionCosts) {
+    if (tellerTransactionCosts.getCharges() != null) {
+      this.tellerTransactionChargeRepository.save(
+          tellerTransactionCosts.getCharges()
+              .stream()
+              .map(charge -> {
+                final TellerTransactionChargeEntity tellerTransactionChargeEntity = new TellerTransactionChargeEntity();
+                tellerTransactionChargeEntity.setTellerTransactionId(tellerTransactionEntity.getId());
+                tellerTransactionChargeEntity.setCode(charge.getCode());
+                tellerTransactionChargeEntity.setName(charge.getName());
+                tellerTransactionChargeEntity.setIncomeAccountIdentifier(charge.getIncomeAccountIdentifier());
+                tellerTransactionChargeEntity.setAmount(charge.getAmount());
+                return tellerTransactionChargeEntity;
+              })
+              .collect(Collectors.toList())
+      );
+    }
+  }
+
+  public TellerTransactionCosts getQuotedCosts(final TellerTransaction tellerTransaction) {
+    if (tellerTransaction.getIdentifier() == null) {
+      return this.getCosts(tellerTransaction);
+    }
+
+    final Optional<TellerTransactionEntity> optionalTellerTransaction =
+        this.tellerTransactionRepository.findByIdentifier(tellerTransaction.getIdentifier());
+
+    if (!optionalTellerTransaction.isPresent() || optionalTellerTransaction.get().getCostsTotalAmount() == null) {
+      this.logger.debug("No quoted costs for transaction {}, recalculating.", tellerTransaction.getIdentifier());
+      return this.getCosts(tellerTransaction);
+    }
+
+    final TellerTransactionEntity tellerTransactionEntity = optionalTellerTransaction.get();
+    final List<Charge> charges =
+        this.tellerTransactionChargeRepository.findByTellerTransactionIdOrderByIdAsc(tellerTransactionEntity.getId())
+            .stream()
+            .map(tellerTransactionChargeEntity -> {
+              final Charge charge = new Charge();
+              charge.setCode(tellerTransactionChargeEntity.getCode());
+              charge.setName(tellerTransactionChargeEntity.getName());
+              charge.setIncomeAccountIdentifier(tellerTransactionChargeEntity.getIncomeAccountIdentifier());
+              charge.setAmount(tellerTransactionChargeEntity.getAmount());
+              return charge;
+            })
+            .collect(Collectors.toList());
+
+    final TellerTransactionCosts tellerTransactionCosts = new TellerTransactionCosts();
+    tellerTransactionCosts.setTellerTransactionIdentifier(tellerTransactionEntity.getIdentifier());
+    tellerTransactionCosts.setCharges(charges);
+    tellerTransactionCosts.setTotalAmount(tellerTransactionEntity.getCostsTotalAmount());
+    return tellerTransactionCosts;
+  }
 }
@@ -55,6 +55,8 @@ public class ChequeEntity {
   private Date dateIssued;
   @Column(name = "open_cheque", nullable = true)
   private Boolean openCheque;
+  @Column(name = "clearing_state", nullable = false, length = 32)
+  private String clearingState;
 
   public ChequeEntity() {
     super();
@@ -147,4 +149,12 @@ public class ChequeEntity {
   public void setOpenCheque(final Boolean openCheque) {
     this.openCheque = openCheque;
   }
+
+  public String getClearingState() {
+    return this.clearingState;
+  }
+
+  public void setClearingState(final String clearingState) {
+    this.clearingState = clearingState;
+  }
 }
@@ -18,13 +18,26 @@
  */
 package org.apache.fineract.cn.teller.service.internal.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ChequeRepository extends JpaRepository<ChequeEntity, Long> {
 
   Optional<ChequeEntity> findByTellerTransactionId(final Long tellerTransactionId);
+
+  List<ChequeEntity> findByTellerTransactionIdIn(final Collection<Long> tellerTransactionIds);
+
+  Long countByChequeNumberAndBranchSortCodeAndAccountNumber(final String chequeNumber, final String branchSortCode,
+                                                            final String accountNumber);
+
+  List<ChequeEntity> findByChequeNumberIn(final Collection<String> chequeNumbers);
+
+  Slice<ChequeEntity> findByIdGreaterThanOrderByIdAsc(final Long id, final Pageable pageable);
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.repository;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
+
+@Entity
+@Table(name = "tajet_outbox_messages")
+public class OutboxMessageEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private Long id;
+  @Column(name = "transaction_identifier", nullable = false, length = 32)
+  private String transactionIdentifier;
+  @Column(name = "action", nullable = false, length = 64)
+  private String action;
+  @Column(name = "payload", nullable = false)
+  private String payload;
+  @Column(name = "idempotency_key", nullable = false, length = 128)
+  private String idempotencyKey;
+  @Column(name = "a_state", nullable = false, length = 32)
+  private String state;
+  @Column(name = "attempts", nullable = false)
+  private Integer attempts;
+  @Column(name = "next_attempt_on", nullable = false)
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime nextAttemptOn;
+  @Column(name = "last_error", nullable = true, length = 2048)
+  private String lastError;
+  @Column(name = "created_on", nullable = false)
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime createdOn;
+
+  public OutboxMessageEntity() {
+    super();
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public void setId(final Long id) {
+    this.id = id;
+  }
+
+  public String getTransactionIdentifier() {
+    return this.transactionIdentifier;
+  }
+
+  public void setTransactionIdentifier(final String transactionIdentifier) {
+    this.transactionIdentifier = transactionIdentifier;
+  }
+
+  public String getAction() {
+    return this.action;
+  }
+
+  public void setAction(final String action) {
+    this.action = action;
+  }
+
+  public String getPayload() {
+    return this.payload;
+  }
+
+  public void setPayload(final String payload) {
+    this.payload = payload;
+  }
+
+  public String getIdempotencyKey() {
+    return this.idempotencyKey;
+  }
+
+  public void setIdempotencyKey(final String idempotencyKey) {
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  public String getState() {
+    return this.state;
+  }
+
+  public void setState(final String state) {
+    this.state = state;
+  }
+
+  public Integer getAttempts() {
+    return this.attempts;
+  }
+
+  public void setAttempts(final Integer attempts) {
+    this.attempts = attempts;
+  }
+
+  public LocalDateTime getNextAttemptOn() {
+    return this.nextAttemptOn;
+  }
+
+  public void setNextAttemptOn(final LocalDateTime nextAttemptOn) {
+    this.nextAttemptOn = nextAttemptOn;
+  }
+
+  public String getLastError() {
+    return this.lastError;
+  }
+
+  public void setLastError(final String lastError) {
+    this.lastError = lastError;
+  }
+
+  public LocalDateTime getCreatedOn() {
+    return this.createdOn;
+  }
+
+  public void setCreatedOn(final LocalDateTime createdOn) {
+    this.createdOn = createdOn;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessageEntity, Long> {
+
+  List<OutboxMessageEntity> findByTransactionIdentifierOrderByIdAsc(final String transactionIdentifier);
+
+  Long countByTransactionIdentifierAndState(final String transactionIdentifier, final String state);
+
+  List<OutboxMessageEntity> findByActionAndStateAndPayloadContaining(final String action, final String state,
+                                                                     final String payloadFragment);
+
+  List<OutboxMessageEntity> findByStateAndNextAttemptOnLessThanOrderByIdAsc(final String state,
+                                                                            final LocalDateTime nextAttemptOn,
+                                                                            final Pageable pageable);
+
+  @Query("SELECT COUNT(o) FROM OutboxMessageEntity o, TellerTransactionEntity t "
+      + "WHERE t.identifier = o.transactionIdentifier AND t.teller = :teller AND o.state = :state")
+  Long countByTellerAndState(@Param("teller") final TellerEntity teller,
+                             @Param("state") final String state);
+
+  /**
+   * Leases all due messages of a transaction to the caller; concurrent callers block on the
+   * row locks and find the messages no longer due, so only one of them gets a non-zero count.
+   */
+  @Modifying(clearAutomatically = true)
+  @Transactional
+  @Query("UPDATE OutboxMessageEntity o SET o.nextAttemptOn = :leasedUntil "
+      + "WHERE o.transactionIdentifier = :transactionIdentifier AND o.state = :state AND o.nextAttemptOn <= :now")
+  int claim(@Param("transactionIdentifier") final String transactionIdentifier,
+            @Param("state") final String state,
+            @Param("now") final LocalDateTime now,
+            @Param("leasedUntil") final LocalDateTime leasedUntil);
+
+  @Modifying(clearAutomatically = true)
+  @Transactional
+  @Query("UPDATE OutboxMessageEntity o SET o.nextAttemptOn = :nextAttemptOn "
+      + "WHERE o.transactionIdentifier = :transactionIdentifier AND o.state = :state")
+  int reschedule(@Param("transactionIdentifier") final String transactionIdentifier,
+                 @Param("state") final String state,
+                 @Param("nextAttemptOn") final LocalDateTime nextAttemptOn);
+
+  @Modifying(clearAutomatically = true)
+  @Transactional
+  @Query("UPDATE OutboxMessageEntity o SET o.state = :newState "
+      + "WHERE o.transactionIdentifier = :transactionIdentifier AND o.state = :state")
+  int changeState(@Param("transactionIdentifier") final String transactionIdentifier,
+                  @Param("state") final String state,
+                  @Param("newState") final String newState);
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
+
+@Entity
+@Table(name = "tajet_teller_balances")
+public class TellerBalanceEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private Long id;
+  @Column(name = "teller_id", nullable = false)
+  private Long tellerId;
+  @Column(name = "session_opened_on", nullable = true)
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime sessionOpenedOn;
+  @Column(name = "cash_received", nullable = false)
+  private BigDecimal cashReceived;
+  @Column(name = "cash_disbursed", nullable = false)
+  private BigDecimal cashDisbursed;
+  @Column(name = "cheques_received", nullable = false)
+  private BigDecimal chequesReceived;
+  @Column(name = "last_modified_on", nullable = false)
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime lastModifiedOn;
+
+  public TellerBalanceEntity() {
+    super();
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public void setId(final Long id) {
+    this.id = id;
+  }
+
+  public Long getTellerId() {
+    return this.tellerId;
+  }
+
+  public void setTellerId(final Long tellerId) {
+    this.tellerId = tellerId;
+  }
+
+  public LocalDateTime getSessionOpenedOn() {
+    return this.sessionOpenedOn;
+  }
+
+  public void setSessionOpenedOn(final LocalDateTime sessionOpenedOn) {
+    this.sessionOpenedOn = sessionOpenedOn;
+  }
+
+  public BigDecimal getCashReceived() {
+    return this.cashReceived;
+  }
+
+  public void setCashReceived(final BigDecimal cashReceived) {
+    this.cashReceived = cashReceived;
+  }
+
+  public BigDecimal getCashDisbursed() {
+    return this.cashDisbursed;
+  }
+
+  public void setCashDisbursed(final BigDecimal cashDisbursed) {
+    this.cashDisbursed = cashDisbursed;
+  }
+
+  public BigDecimal getChequesReceived() {
+    return this.chequesReceived;
+  }
+
+  public void setChequesReceived(final BigDecimal chequesReceived) {
+    this.chequesReceived = chequesReceived;
+  }
+
+  public LocalDateTime getLastModifiedOn() {
+    return this.lastModifiedOn;
+  }
+
+  public void setLastModifiedOn(final LocalDateTime lastModifiedOn) {
+    this.lastModifiedOn = lastModifiedOn;
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TellerBalanceRepository extends JpaRepository<TellerBalanceEntity, Long> {
+
+  Optional<TellerBalanceEntity> findByTellerId(final Long tellerId);
+
+  @Modifying
+  @Query("UPDATE TellerBalanceEntity b SET b.cashReceived = b.cashReceived + :cashReceived, "
+      + "b.cashDisbursed = b.cashDisbursed + :cashDisbursed, "
+      + "b.chequesReceived = b.chequesReceived + :chequesReceived, "
+      + "b.lastModifiedOn = :lastModifiedOn "
+      + "WHERE b.tellerId = :tellerId")
+  int increment(@Param("tellerId") final Long tellerId,
+                @Param("cashReceived") final BigDecimal cashReceived,
+                @Param("cashDisbursed") final BigDecimal cashDisbursed,
+                @Param("chequesReceived") final BigDecimal chequesReceived,
+                @Param("lastModifiedOn") final LocalDateTime lastModifiedOn);
+}
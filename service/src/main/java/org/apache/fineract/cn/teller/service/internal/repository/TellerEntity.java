@@ -27,6 +27,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
 
 @Entity
@@ -77,6 +78,13 @@ public class TellerEntity {
   @Column(name = "last_opened_on", nullable = true)
   @Convert(converter = LocalDateTimeConverter.class)
   private LocalDateTime lastOpenedOn;
+  @Column(name = "hash_iteration_count", nullable = false)
+  private Integer hashIterationCount;
+  @Column(name = "hash_length", nullable = false)
+  private Integer hashLength;
+  @Version
+  @Column(name = "a_version", nullable = false)
+  private Long version;
 
   public TellerEntity() {
     super();
@@ -233,4 +241,28 @@ public class TellerEntity {
   public void setLastOpenedOn(final LocalDateTime lastOpenedOn) {
     this.lastOpenedOn = lastOpenedOn;
   }
+
+  public Integer getHashIterationCount() {
+    return this.hashIterationCount;
+  }
+
+  public void setHashIterationCount(final Integer hashIterationCount) {
+    this.hashIterationCount = hashIterationCount;
+  }
+
+  public Integer getHashLength() {
+    return this.hashLength;
+  }
+
+  public void setHashLength(final Integer hashLength) {
+    this.hashLength = hashLength;
+  }
+
+  public Long getVersion() {
+    return this.version;
+  }
+
+  public void setVersion(final Long version) {
+    this.version = version;
+  }
 }
@@ -19,8 +19,13 @@
 package org.apache.fineract.cn.teller.service.internal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,5 +36,41 @@ public interface TellerRepository extends JpaRepository<TellerEntity, Long> {
 
   List<TellerEntity> findByOfficeIdentifier(final String officeIdentifier);
 
+  List<TellerEntity> findByIdentifierIn(final Collection<String> identifiers);
+
   Optional<TellerEntity> findFirstByAssignedEmployeeIdentifier(final String employeeIdentifier);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE TellerEntity t SET t.state = :state, t.assignedEmployeeIdentifier = :assignedEmployeeIdentifier, "
+      + "t.lastModifiedBy = :lastModifiedBy, t.lastModifiedOn = :lastModifiedOn, t.version = t.version + 1 "
+      + "WHERE t.id = :id AND t.state = :expectedState AND t.version = :expectedVersion")
+  int updateState(@Param("id") final Long id,
+                  @Param("expectedState") final String expectedState,
+                  @Param("expectedVersion") final Long expectedVersion,
+                  @Param("state") final String state,
+                  @Param("assignedEmployeeIdentifier") final String assignedEmployeeIdentifier,
+                  @Param("lastModifiedBy") final String lastModifiedBy,
+                  @Param("lastModifiedOn") final LocalDateTime lastModifiedOn);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE TellerEntity t SET t.state = :state, t.assignedEmployeeIdentifier = :assignedEmployeeIdentifier, "
+      + "t.lastModifiedBy = :lastModifiedBy, t.lastModifiedOn = :lastModifiedOn, "
+      + "t.lastOpenedBy = :lastModifiedBy, t.lastOpenedOn = :lastModifiedOn, t.version = t.version + 1 "
+      + "WHERE t.id = :id AND t.state = :expectedState AND t.version = :expectedVersion")
+  int updateStateOpened(@Param("id") final Long id,
+                        @Param("expectedState") final String expectedState,
+                        @Param("expectedVersion") final Long expectedVersion,
+                        @Param("state") final String state,
+                        @Param("assignedEmployeeIdentifier") final String assignedEmployeeIdentifier,
+                        @Param("lastModifiedBy") final String lastModifiedBy,
+                        @Param("lastModifiedOn") final LocalDateTime lastModifiedOn);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE TellerEntity t SET t.password = :password, t.hashIterationCount = :hashIterationCount, "
+      + "t.hashLength = :hashLength WHERE t.id = :id AND t.salt = :salt")
+  int updatePasswordHash(@Param("id") final Long id,
+                         @Param("salt") final String salt,
+                         @Param("password") final String password,
+                         @Param("hashIterationCount") final Integer hashIterationCount,
+                         @Param("hashLength") final Integer hashLength);
 }
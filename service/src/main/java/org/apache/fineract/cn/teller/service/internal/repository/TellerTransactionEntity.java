@@ -20,7 +20,6 @@ package org.apache.fineract.cn.teller.service.internal.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
@@ -41,7 +40,7 @@ public class TellerTransactionEntity {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   @Column(name = "id", nullable = false)
   private Long id;
-  @ManyToOne(optional = false, fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+  @ManyToOne(optional = false, fetch = FetchType.LAZY)
   @JoinColumn(name = "teller_id")
   private TellerEntity teller;
   @Column(name = "identifier", nullable = false, length = 32)
@@ -67,6 +66,10 @@ public class TellerTransactionEntity {
   private BigDecimal amount;
   @Column(name = "a_state", nullable = false, length = 256)
   private String state;
+  @Column(name = "costs_total_amount", nullable = true)
+  private BigDecimal costsTotalAmount;
+  @Column(name = "follow_up_error", nullable = true, length = 2048)
+  private String followUpError;
 
   public TellerTransactionEntity() {
     super();
@@ -175,4 +178,20 @@ public class TellerTransactionEntity {
   public void setState(final String state) {
     this.state = state;
   }
+
+  public BigDecimal getCostsTotalAmount() {
+    return this.costsTotalAmount;
+  }
+
+  public void setCostsTotalAmount(final BigDecimal costsTotalAmount) {
+    this.costsTotalAmount = costsTotalAmount;
+  }
+
+  public String getFollowUpError() {
+    return this.followUpError;
+  }
+
+  public void setFollowUpError(final String followUpError) {
+    this.followUpError = followUpError;
+  }
 }
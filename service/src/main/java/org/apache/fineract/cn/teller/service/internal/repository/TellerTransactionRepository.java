@@ -18,7 +18,11 @@
  */
 package org.apache.fineract.cn.teller.service.internal.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -38,4 +42,27 @@ public interface TellerTransactionRepository extends JpaRepository<TellerTransac
                                                                                         final String transactionType,
                                                                                         final LocalDateTime startDate,
                                                                                         final LocalDateTime endDate);
+
+  @Query("SELECT t FROM TellerTransactionEntity t WHERE t.teller = :teller "
+      + "AND t.transactionDate BETWEEN :startDate AND :endDate "
+      + "AND (t.transactionDate > :lastDate OR (t.transactionDate = :lastDate AND t.id > :lastId)) "
+      + "ORDER BY t.transactionDate ASC, t.id ASC")
+  Slice<TellerTransactionEntity> findNextPage(@Param("teller") final TellerEntity teller,
+                                              @Param("startDate") final LocalDateTime startDate,
+                                              @Param("endDate") final LocalDateTime endDate,
+                                              @Param("lastDate") final LocalDateTime lastDate,
+                                              @Param("lastId") final Long lastId,
+                                              final Pageable pageable);
+
+  @Query("SELECT t FROM TellerTransactionEntity t WHERE t.teller = :teller AND t.state = :state "
+      + "AND t.transactionDate BETWEEN :startDate AND :endDate "
+      + "AND (t.transactionDate > :lastDate OR (t.transactionDate = :lastDate AND t.id > :lastId)) "
+      + "ORDER BY t.transactionDate ASC, t.id ASC")
+  Slice<TellerTransactionEntity> findNextPageByState(@Param("teller") final TellerEntity teller,
+                                                     @Param("state") final String state,
+                                                     @Param("startDate") final LocalDateTime startDate,
+                                                     @Param("endDate") final LocalDateTime endDate,
+                                                     @Param("lastDate") final LocalDateTime lastDate,
+                                                     @Param("lastId") final Long lastId,
+                                                     final Pageable pageable);
 }
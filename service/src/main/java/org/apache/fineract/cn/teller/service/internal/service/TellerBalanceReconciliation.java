@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service;
+
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.api.v1.domain.Teller;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.service.internal.processor.TellerTransactionOutbox;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerBalanceEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerBalanceRepository;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionRepository;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.ProvisionedTenants;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.lang.DateConverter;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically compares the running totals of open tellers with the ledger. Journal entries count for a
+ * session by the time accounting booked them, not by the transaction date given by the client.
+ */
+@Component
+public class TellerBalanceReconciliation {
+
+  private final Logger logger;
+  private final TellerBalanceRepository tellerBalanceRepository;
+  private final TellerRepository tellerRepository;
+  private final TellerTransactionRepository tellerTransactionRepository;
+  private final TellerBalanceService tellerBalanceService;
+  private final TellerTransactionOutbox tellerTransactionOutbox;
+  private final AccountingService accountingService;
+  private final ProvisionedTenants provisionedTenants;
+
+  @Autowired
+  public TellerBalanceReconciliation(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                     final TellerBalanceRepository tellerBalanceRepository,
+                                     final TellerRepository tellerRepository,
+                                     final TellerTransactionRepository tellerTransactionRepository,
+                                     final TellerBalanceService tellerBalanceService,
+                                     final TellerTransactionOutbox tellerTransactionOutbox,
+                                     final AccountingService accountingService,
+                                     final ProvisionedTenants provisionedTenants) {
+    super();
+    this.logger = logger;
+    this.tellerBalanceRepository = tellerBalanceRepository;
+    this.tellerRepository = tellerRepository;
+    this.tellerTransactionRepository = tellerTransactionRepository;
+    this.tellerBalanceService = tellerBalanceService;
+    this.tellerTransactionOutbox = tellerTransactionOutbox;
+    this.accountingService = accountingService;
+    this.provisionedTenants = provisionedTenants;
+  }
+
+  @Scheduled(
+      initialDelayString = "${teller.balance.reconciliationIntervalInMillis:900000}",
+      fixedDelayString = "${teller.balance.reconciliationIntervalInMillis:900000}"
+  )
+  public void reconcile() {
+    this.provisionedTenants.forEach(this::reconcileOpenTellers);
+  }
+
+  private void reconcileOpenTellers() {
+    for (final TellerBalanceEntity tellerBalanceEntity : this.tellerBalanceRepository.findAll()) {
+      final TellerEntity tellerEntity = this.tellerRepository.findOne(tellerBalanceEntity.getTellerId());
+      if (tellerEntity == null
+          || tellerEntity.getLastOpenedOn() == null
+          || !tellerEntity.getLastOpenedOn().equals(tellerBalanceEntity.getSessionOpenedOn())
+          || !(tellerEntity.getState().equals(Teller.State.OPEN.name())
+              || tellerEntity.getState().equals(Teller.State.PAUSED.name()))) {
+        continue;
+      }
+
+      // undelivered journal entries are already in the running totals but not yet in the ledger
+      if (this.tellerTransactionOutbox.hasPendingMessages(tellerEntity)) {
+        continue;
+      }
+
+      try {
+        this.reconcile(tellerEntity);
+      } catch (final RuntimeException rex) {
+        this.logger.warn("Could not reconcile running balance of teller {}.", tellerEntity.getIdentifier(), rex);
+      }
+    }
+  }
+
+  private void reconcile(final TellerEntity tellerEntity) {
+    final LocalDateTime sessionOpenedOn = tellerEntity.getLastOpenedOn();
+    final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+
+    final String dateRange = DateConverter.toIsoString(sessionOpenedOn.toLocalDate())
+        + ".." + DateConverter.toIsoString(now.toLocalDate());
+    final List<JournalEntry> journalEntries =
+        this.accountingService.fetchJournalEntries(tellerEntity.getTellerAccountIdentifier(), dateRange)
+            .stream()
+            .filter(journalEntry -> journalEntry.getCreatedOn() != null
+                && !DateConverter.fromIsoString(journalEntry.getCreatedOn()).isBefore(sessionOpenedOn))
+            .collect(Collectors.toList());
+
+    final BigDecimal chequesReceived = this.tellerTransactionRepository
+        .findByTellerAndTransactionTypeAndTransactionDateBetween(tellerEntity, ServiceConstants.TX_CHEQUE,
+            sessionOpenedOn, now)
+        .stream()
+        .filter(tellerTransactionEntity -> tellerTransactionEntity.getState().equals(TellerTransaction.State.CONFIRMED.name()))
+        .map(TellerTransactionEntity::getAmount)
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+    this.tellerBalanceService.verify(tellerEntity, journalEntries, chequesReceived);
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service;
+
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerBalanceEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerBalanceRepository;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.fineract.cn.accounting.api.v1.domain.Creditor;
+import org.apache.fineract.cn.accounting.api.v1.domain.Debtor;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the running cash and cheque totals of a teller's current session, updated in the
+ * same transaction that moves money through the teller account.
+ */
+@Service
+public class TellerBalanceService {
+
+  private final Logger logger;
+  private final TellerBalanceRepository tellerBalanceRepository;
+
+  @Autowired
+  public TellerBalanceService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                              final TellerBalanceRepository tellerBalanceRepository) {
+    super();
+    this.logger = logger;
+    this.tellerBalanceRepository = tellerBalanceRepository;
+  }
+
+  @Transactional
+  public void startSession(final TellerEntity tellerEntity) {
+    final TellerBalanceEntity tellerBalanceEntity =
+        this.tellerBalanceRepository.findByTellerId(tellerEntity.getId()).orElseGet(() -> {
+          final TellerBalanceEntity newTellerBalanceEntity = new TellerBalanceEntity();
+          newTellerBalanceEntity.setTellerId(tellerEntity.getId());
+          return newTellerBalanceEntity;
+        });
+
+    tellerBalanceEntity.setSessionOpenedOn(tellerEntity.getLastOpenedOn());
+    tellerBalanceEntity.setCashReceived(BigDecimal.ZERO);
+    tellerBalanceEntity.setCashDisbursed(BigDecimal.ZERO);
+    tellerBalanceEntity.setChequesReceived(BigDecimal.ZERO);
+    tellerBalanceEntity.setLastModifiedOn(LocalDateTime.now(Clock.systemUTC()));
+    this.tellerBalanceRepository.save(tellerBalanceEntity);
+  }
+
+  @Transactional
+  public void record(final TellerEntity tellerEntity, final JournalEntry journalEntry) {
+    this.increment(tellerEntity, this.cashReceived(tellerEntity, journalEntry),
+        this.cashDisbursed(tellerEntity, journalEntry), BigDecimal.ZERO);
+  }
+
+  /**
+   * Takes back a {@link #record recorded} journal entry the ledger never booked. Nothing is
+   * done if the teller has been reopened since the transaction.
+   */
+  @Transactional
+  public void reverse(final TellerEntity tellerEntity, final JournalEntry journalEntry,
+                      final LocalDateTime transactionDate) {
+    if (this.isCurrentSession(tellerEntity, transactionDate)) {
+      this.increment(tellerEntity, this.cashReceived(tellerEntity, journalEntry).negate(),
+          this.cashDisbursed(tellerEntity, journalEntry).negate(), BigDecimal.ZERO);
+    }
+  }
+
+  @Transactional
+  public void recordCashReceived(final TellerEntity tellerEntity, final BigDecimal amount) {
+    this.increment(tellerEntity, amount, BigDecimal.ZERO, BigDecimal.ZERO);
+  }
+
+  @Transactional
+  public void recordChequeReceived(final TellerEntity tellerEntity, final BigDecimal amount) {
+    this.increment(tellerEntity, BigDecimal.ZERO, BigDecimal.ZERO, amount);
+  }
+
+  /**
+   * Takes back a {@link #recordChequeReceived received cheque} the cheque service did not
+   * accept. Nothing is done if the teller has been reopened since the transaction.
+   */
+  @Transactional
+  public void reverseChequeReceived(final TellerEntity tellerEntity, final BigDecimal amount,
+                                    final LocalDateTime transactionDate) {
+    if (this.isCurrentSession(tellerEntity, transactionDate)) {
+      this.increment(tellerEntity, BigDecimal.ZERO, BigDecimal.ZERO, amount.negate());
+    }
+  }
+
+  public Optional<TellerBalanceEntity> findRunningBalance(final TellerEntity tellerEntity) {
+    return this.tellerBalanceRepository.findByTellerId(tellerEntity.getId());
+  }
+
+  /**
+   * Compares the running totals with figures rebuilt from the ledger for the same session
+   * and logs any drift. Never writes; increments committed while the ledger was read would
+   * otherwise be lost.
+   */
+  public boolean verify(final TellerEntity tellerEntity, final BigDecimal cashReceived,
+                        final BigDecimal cashDisbursed, final BigDecimal chequesReceived) {
+    final Optional<TellerBalanceEntity> optionalTellerBalance = this.findRunningBalance(tellerEntity)
+        .filter(tellerBalanceEntity -> tellerEntity.getLastOpenedOn() != null
+            && tellerEntity.getLastOpenedOn().equals(tellerBalanceEntity.getSessionOpenedOn()));
+    if (!optionalTellerBalance.isPresent()) {
+      return true;
+    }
+
+    final TellerBalanceEntity tellerBalanceEntity = optionalTellerBalance.get();
+    if (tellerBalanceEntity.getCashReceived().compareTo(cashReceived) == 0
+        && tellerBalanceEntity.getCashDisbursed().compareTo(cashDisbursed) == 0
+        && tellerBalanceEntity.getChequesReceived().compareTo(chequesReceived) == 0) {
+      return true;
+    }
+
+    this.logger.warn("Running balance of teller {} drifted from ledger, received {}/{}, disbursed {}/{}, cheques {}/{}.",
+        tellerEntity.getIdentifier(), tellerBalanceEntity.getCashReceived(), cashReceived,
+        tellerBalanceEntity.getCashDisbursed(), cashDisbursed, tellerBalanceEntity.getChequesReceived(), chequesReceived);
+    return false;
+  }
+
+  /**
+   * Same as {@link #verify(TellerEntity, BigDecimal, BigDecimal, BigDecimal)} with the cash totals taken
+   * from the given journal entries.
+   */
+  public boolean verify(final TellerEntity tellerEntity, final List<JournalEntry> journalEntries,
+                        final BigDecimal chequesReceived) {
+    BigDecimal cashReceived = BigDecimal.ZERO;
+    BigDecimal cashDisbursed = BigDecimal.ZERO;
+    for (final JournalEntry journalEntry : journalEntries) {
+      cashReceived = cashReceived.add(this.cashReceived(tellerEntity, journalEntry));
+      cashDisbursed = cashDisbursed.add(this.cashDisbursed(tellerEntity, journalEntry));
+    }
+    return this.verify(tellerEntity, cashReceived, cashDisbursed, chequesReceived);
+  }
+
+  private boolean isCurrentSession(final TellerEntity tellerEntity, final LocalDateTime transactionDate) {
+    return this.findRunningBalance(tellerEntity)
+        .map(tellerBalanceEntity -> tellerBalanceEntity.getSessionOpenedOn() != null
+            && !tellerBalanceEntity.getSessionOpenedOn().isAfter(transactionDate))
+        .orElse(Boolean.FALSE);
+  }
+
+  private BigDecimal cashReceived(final TellerEntity tellerEntity, final JournalEntry journalEntry) {
+    BigDecimal cashReceived = BigDecimal.ZERO;
+    final Set<Debtor> debtors = journalEntry.getDebtors();
+    if (debtors != null) {
+      for (final Debtor debtor : debtors) {
+        if (tellerEntity.getTellerAccountIdentifier().equals(debtor.getAccountNumber())) {
+          cashReceived = cashReceived.add(new BigDecimal(debtor.getAmount()));
+        }
+      }
+    }
+    return cashReceived;
+  }
+
+  private BigDecimal cashDisbursed(final TellerEntity tellerEntity, final JournalEntry journalEntry) {
+    BigDecimal cashDisbursed = BigDecimal.ZERO;
+    final Set<Creditor> creditors = journalEntry.getCreditors();
+    if (creditors != null) {
+      for (final Creditor creditor : creditors) {
+        if (tellerEntity.getTellerAccountIdentifier().equals(creditor.getAccountNumber())) {
+          cashDisbursed = cashDisbursed.add(new BigDecimal(creditor.getAmount()));
+        }
+      }
+    }
+    return cashDisbursed;
+  }
+
+  private void increment(final TellerEntity tellerEntity, final BigDecimal cashReceived,
+                         final BigDecimal cashDisbursed, final BigDecimal chequesReceived) {
+    if (cashReceived.signum() == 0 && cashDisbursed.signum() == 0 && chequesReceived.signum() == 0) {
+      return;
+    }
+
+    final int updated = this.tellerBalanceRepository.increment(tellerEntity.getId(), cashReceived, cashDisbursed,
+        chequesReceived, LocalDateTime.now(Clock.systemUTC()));
+    if (updated == 0) {
+      this.logger.info("No running balance for teller {}, totals will be rebuilt from ledger until it is reopened.", tellerEntity.getIdentifier());
+    }
+  }
+}
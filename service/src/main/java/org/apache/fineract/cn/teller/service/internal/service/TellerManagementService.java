@@ -27,12 +27,14 @@ import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
 import org.apache.fineract.cn.teller.service.internal.mapper.TellerDenominationMapper;
 import org.apache.fineract.cn.teller.service.internal.mapper.TellerEntryMapper;
 import org.apache.fineract.cn.teller.service.internal.mapper.TellerMapper;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerBalanceEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerDenominationRepository;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
-import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionRepository;
 import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
+import org.apache.fineract.cn.teller.service.internal.util.ContextPropagatingExecutor;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDate;
@@ -41,34 +43,55 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntryPage;
 import org.apache.fineract.cn.lang.DateConverter;
+import org.apache.fineract.cn.lang.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TellerManagementService {
 
   private final TellerRepository tellerRepository;
+  private final TellerCache tellerCache;
   private final TellerTransactionRepository tellerTransactionRepository;
   private final TellerDenominationRepository tellerDenominationRepository;
   private final AccountingService accountingService;
+  private final TellerBalanceService tellerBalanceService;
+  private final ContextPropagatingExecutor remoteCallExecutor;
+  private final int entryPageSize;
+  private final int entryFetchParallelism;
 
   @Autowired
   public TellerManagementService(final TellerRepository tellerRepository,
+                                 final TellerCache tellerCache,
                                  final TellerTransactionRepository tellerTransactionRepository,
                                  final TellerDenominationRepository tellerDenominationRepository,
-                                 final AccountingService accountingService) {
+                                 final AccountingService accountingService,
+                                 final TellerBalanceService tellerBalanceService,
+                                 final ContextPropagatingExecutor remoteCallExecutor,
+                                 @Value("${teller.balance.entryPageSize:250}") final int entryPageSize,
+                                 @Value("${teller.balance.entryFetchParallelism:4}") final int entryFetchParallelism) {
     super();
     this.tellerRepository = tellerRepository;
+    this.tellerCache = tellerCache;
     this.tellerTransactionRepository = tellerTransactionRepository;
     this.tellerDenominationRepository = tellerDenominationRepository;
     this.accountingService = accountingService;
+    this.tellerBalanceService = tellerBalanceService;
+    this.remoteCallExecutor = remoteCallExecutor;
+    this.entryPageSize = Math.max(1, entryPageSize);
+    this.entryFetchParallelism = Math.max(1, entryFetchParallelism);
   }
 
   public Optional<Teller> findByIdentifier(final String code) {
-    return this.tellerRepository.findByIdentifier(code).map(TellerMapper::map);
+    return this.tellerCache.find(code).map(TellerMapper::map);
   }
 
   public List<Teller> findByOfficeIdentifier(final String officeIdentifier) {
@@ -81,75 +104,109 @@ public class TellerManagementService {
   public TellerBalanceSheet getBalance(final String tellerCode) {
     final TellerBalanceSheet tellerBalanceSheet = new TellerBalanceSheet();
 
-    final Optional<TellerEntity> optionalTellerEntity = this.tellerRepository.findByIdentifier(tellerCode);
+    final Optional<TellerEntity> optionalTellerEntity = this.tellerCache.find(tellerCode);
     optionalTellerEntity.ifPresent(tellerEntity -> {
 
       if (tellerEntity.getLastOpenedOn() != null) {
-        final String accountIdentifier = tellerEntity.getTellerAccountIdentifier();
-        final LocalDate startDate = tellerEntity.getLastOpenedOn().toLocalDate();
-        tellerBalanceSheet.setDay(startDate.format(DateTimeFormatter.BASIC_ISO_DATE));
+        tellerBalanceSheet.setDay(tellerEntity.getLastOpenedOn().toLocalDate().format(DateTimeFormatter.BASIC_ISO_DATE));
         final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
-        final LocalDate endDate = now.toLocalDate();
-        final String dateRange =
-            DateConverter.toIsoString(startDate) + ".." + DateConverter.toIsoString(endDate);
 
-        final List<TellerEntry> tellerEntries = this.fetchTellerEntries(accountIdentifier, dateRange, 0);
+        final ArrayList<TellerEntry> tellerEntries = new ArrayList<>();
+        final CashTotals cashTotals = new CashTotals();
+        this.fetchTellerEntries(tellerEntity.getTellerAccountIdentifier(), this.sessionDateRange(tellerEntity, now),
+            cashTotals.andThen(tellerEntries::add));
 
         tellerBalanceSheet.setCashEntries(tellerEntries);
+        tellerBalanceSheet.setCashReceivedTotal(cashTotals.received);
+        tellerBalanceSheet.setCashDisbursedTotal(cashTotals.disbursed);
+        tellerBalanceSheet.setCashOnHand(cashTotals.received.subtract(cashTotals.disbursed));
 
-        tellerBalanceSheet.setCashReceivedTotal(
-            tellerBalanceSheet.getCashEntries()
-                .stream()
-                .filter(tellerEntry -> tellerEntry.getType().equals(TellerEntry.Type.DEBIT.name()))
-                .map(TellerEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-        );
+        tellerBalanceSheet.setChequeEntries(this.streamChequeEntries(tellerEntity, now).collect(Collectors.toList()));
 
-        tellerBalanceSheet.setCashDisbursedTotal(
-            tellerEntries
+        tellerBalanceSheet.setChequesReceivedTotal(
+            tellerBalanceSheet.getChequeEntries()
                 .stream()
-                .filter(tellerEntry -> tellerEntry.getType().equals(TellerEntry.Type.CREDIT.name()))
                 .map(TellerEntry::getAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
         );
+      } else {
+        this.setZeroTotals(tellerBalanceSheet);
+      }
+    });
+    return tellerBalanceSheet;
+  }
 
-        tellerBalanceSheet.setCashOnHand(tellerBalanceSheet.getCashReceivedTotal().subtract(tellerBalanceSheet.getCashDisbursedTotal()));
+  /**
+   * Same totals as {@link #getBalance(String)} without cash and cheque entries. Totals are
+   * taken from the running session balance; only if there is none they are rebuilt from
+   * the ledger.
+   */
+  public TellerBalanceSheet getBalanceTotals(final String tellerCode) {
+    final TellerBalanceSheet tellerBalanceSheet = new TellerBalanceSheet();
 
-        final List<TellerTransactionEntity> chequeTransactions =
-            this.tellerTransactionRepository.findByTellerAndTransactionTypeAndTransactionDateBetween(tellerEntity,
-                ServiceConstants.TX_CHEQUE, tellerEntity.getLastOpenedOn(), now);
+    final Optional<TellerEntity> optionalTellerEntity = this.tellerCache.find(tellerCode);
+    optionalTellerEntity.ifPresent(tellerEntity -> {
 
-        tellerBalanceSheet.setChequeEntries(
-            chequeTransactions
-                .stream()
-                .filter(tellerTransactionEntity -> tellerTransactionEntity.getState().equals(TellerTransaction.State.CONFIRMED.name()))
-                .map(tellerTransactionEntity -> {
-                    final TellerEntry tellerEntry = new TellerEntry();
-                    tellerEntry.setTransactionDate(DateConverter.toIsoString(tellerTransactionEntity.getTransactionDate()));
-                    tellerEntry.setType(TellerEntry.Type.CHEQUE.name());
-                    tellerEntry.setAmount(tellerTransactionEntity.getAmount());
-                    tellerEntry.setMessage(tellerTransactionEntity.getTransactionType());
-                    return tellerEntry;
-                })
-                .collect(Collectors.toList())
-        );
+      if (tellerEntity.getLastOpenedOn() != null) {
+        tellerBalanceSheet.setDay(tellerEntity.getLastOpenedOn().toLocalDate().format(DateTimeFormatter.BASIC_ISO_DATE));
 
-        tellerBalanceSheet.setChequesReceivedTotal(
-            tellerBalanceSheet.getChequeEntries()
-                .stream()
-                .map(TellerEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-        );
+        final Optional<TellerBalanceEntity> optionalTellerBalance = this.findSessionBalance(tellerEntity);
+        if (optionalTellerBalance.isPresent()) {
+          final TellerBalanceEntity tellerBalanceEntity = optionalTellerBalance.get();
+          tellerBalanceSheet.setCashReceivedTotal(tellerBalanceEntity.getCashReceived());
+          tellerBalanceSheet.setCashDisbursedTotal(tellerBalanceEntity.getCashDisbursed());
+          tellerBalanceSheet.setChequesReceivedTotal(tellerBalanceEntity.getChequesReceived());
+        } else {
+          final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+          final CashTotals cashTotals = new CashTotals();
+          this.fetchTellerEntries(tellerEntity.getTellerAccountIdentifier(), this.sessionDateRange(tellerEntity, now),
+              cashTotals);
+
+          tellerBalanceSheet.setCashReceivedTotal(cashTotals.received);
+          tellerBalanceSheet.setCashDisbursedTotal(cashTotals.disbursed);
+          tellerBalanceSheet.setChequesReceivedTotal(
+              this.streamChequeEntries(tellerEntity, now)
+                  .map(TellerEntry::getAmount)
+                  .reduce(BigDecimal.ZERO, BigDecimal::add)
+          );
+        }
+        tellerBalanceSheet.setCashOnHand(
+            tellerBalanceSheet.getCashReceivedTotal().subtract(tellerBalanceSheet.getCashDisbursedTotal()));
       } else {
-        tellerBalanceSheet.setCashReceivedTotal(BigDecimal.ZERO);
-        tellerBalanceSheet.setCashDisbursedTotal(BigDecimal.ZERO);
-        tellerBalanceSheet.setCashOnHand(BigDecimal.ZERO);
-        tellerBalanceSheet.setChequesReceivedTotal(BigDecimal.ZERO);
+        this.setZeroTotals(tellerBalanceSheet);
       }
     });
     return tellerBalanceSheet;
   }
 
+  /**
+   * Hands the cash entries of the current session to the consumer page by page as they
+   * arrive from the ledger, followed by the confirmed cheque entries.
+   */
+  public void streamBalanceEntries(final String tellerCode, final Consumer<TellerEntry> consumer) {
+    this.tellerCache.find(tellerCode).ifPresent(tellerEntity -> {
+      if (tellerEntity.getLastOpenedOn() != null) {
+        final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
+        this.fetchTellerEntries(tellerEntity.getTellerAccountIdentifier(), this.sessionDateRange(tellerEntity, now),
+            consumer);
+        this.streamChequeEntries(tellerEntity, now).forEach(consumer);
+      }
+    });
+  }
+
+  public BigDecimal getCashOnHand(final String tellerCode) {
+    final Optional<TellerEntity> optionalTellerEntity = this.tellerCache.find(tellerCode);
+    if (optionalTellerEntity.isPresent()) {
+      final Optional<TellerBalanceEntity> optionalTellerBalance = this.findSessionBalance(optionalTellerEntity.get());
+      if (optionalTellerBalance.isPresent()) {
+        final TellerBalanceEntity tellerBalanceEntity = optionalTellerBalance.get();
+        return tellerBalanceEntity.getCashReceived().subtract(tellerBalanceEntity.getCashDisbursed());
+      }
+    }
+
+    return this.getBalance(tellerCode).getCashOnHand();
+  }
+
   public List<TellerDenomination> fetchTellerDenominations(
       final String tellerCode, final LocalDateTime startDate, final LocalDateTime endDate) {
     final ArrayList<TellerDenomination> tellerDenominations = new ArrayList<>();
@@ -166,24 +223,94 @@ public class TellerManagementService {
     return tellerDenominations;
   }
 
-  private List<TellerEntry> fetchTellerEntries(final String accountIdentifier, final String dateRange, final Integer pageIndex) {
-    final ArrayList<TellerEntry> tellerEntries = new ArrayList<>();
+  private Optional<TellerBalanceEntity> findSessionBalance(final TellerEntity tellerEntity) {
+    if (tellerEntity.getLastOpenedOn() == null) {
+      return Optional.empty();
+    }
+    return this.tellerBalanceService.findRunningBalance(tellerEntity)
+        .filter(tellerBalanceEntity -> tellerEntity.getLastOpenedOn().equals(tellerBalanceEntity.getSessionOpenedOn()));
+  }
 
-    final AccountEntryPage accountEntryPage =
-        this.accountingService.fetchAccountEntries(accountIdentifier, dateRange, pageIndex, 250);
-    tellerEntries.addAll(
-        accountEntryPage.getAccountEntries().stream().map(TellerEntryMapper::map).collect(Collectors.toList())
-    );
+  private String sessionDateRange(final TellerEntity tellerEntity, final LocalDateTime now) {
+    final LocalDate startDate = tellerEntity.getLastOpenedOn().toLocalDate();
+    final LocalDate endDate = now.toLocalDate();
+    return DateConverter.toIsoString(startDate) + ".." + DateConverter.toIsoString(endDate);
+  }
 
-    final Integer nextPage = pageIndex + 1;
-    if (nextPage < accountEntryPage.getTotalPages()) {
-      tellerEntries.addAll(this.fetchTellerEntries(accountIdentifier, dateRange, nextPage));
-    }
+  private Stream<TellerEntry> streamChequeEntries(final TellerEntity tellerEntity, final LocalDateTime now) {
+    return this.tellerTransactionRepository.findByTellerAndTransactionTypeAndTransactionDateBetween(tellerEntity,
+        ServiceConstants.TX_CHEQUE, tellerEntity.getLastOpenedOn(), now)
+        .stream()
+        .filter(tellerTransactionEntity -> tellerTransactionEntity.getState().equals(TellerTransaction.State.CONFIRMED.name()))
+        .map(tellerTransactionEntity -> {
+          final TellerEntry tellerEntry = new TellerEntry();
+          tellerEntry.setTransactionDate(DateConverter.toIsoString(tellerTransactionEntity.getTransactionDate()));
+          tellerEntry.setType(TellerEntry.Type.CHEQUE.name());
+          tellerEntry.setAmount(tellerTransactionEntity.getAmount());
+          tellerEntry.setMessage(tellerTransactionEntity.getTransactionType());
+          return tellerEntry;
+        });
+  }
+
+  private void setZeroTotals(final TellerBalanceSheet tellerBalanceSheet) {
+    tellerBalanceSheet.setCashReceivedTotal(BigDecimal.ZERO);
+    tellerBalanceSheet.setCashDisbursedTotal(BigDecimal.ZERO);
+    tellerBalanceSheet.setCashOnHand(BigDecimal.ZERO);
+    tellerBalanceSheet.setChequesReceivedTotal(BigDecimal.ZERO);
+  }
+
+  /**
+   * Reads the first page to learn the page count, then fetches the remaining pages in
+   * windows of {@code entryFetchParallelism} concurrent requests. Pages are handed to the
+   * consumer in order on the calling thread.
+   */
+  private void fetchTellerEntries(final String accountIdentifier, final String dateRange,
+                                  final Consumer<TellerEntry> consumer) {
+    final AccountEntryPage firstPage =
+        this.accountingService.fetchAccountEntries(accountIdentifier, dateRange, 0, this.entryPageSize);
+    firstPage.getAccountEntries().forEach(accountEntry -> consumer.accept(TellerEntryMapper.map(accountEntry)));
 
-    return tellerEntries;
+    final int totalPages = firstPage.getTotalPages() != null ? firstPage.getTotalPages() : 1;
+    try {
+      int nextPage = 1;
+      while (nextPage < totalPages) {
+        final int endPage = Math.min(nextPage + this.entryFetchParallelism, totalPages);
+        final ArrayList<CompletableFuture<AccountEntryPage>> pendingPages = new ArrayList<>(endPage - nextPage);
+        for (int pageIndex = nextPage; pageIndex < endPage; pageIndex++) {
+          final int page = pageIndex;
+          pendingPages.add(this.remoteCallExecutor.supply(() ->
+              this.accountingService.fetchAccountEntries(accountIdentifier, dateRange, page, this.entryPageSize)));
+        }
+
+        for (final CompletableFuture<AccountEntryPage> pendingPage : pendingPages) {
+          pendingPage.join().getAccountEntries()
+              .forEach(accountEntry -> consumer.accept(TellerEntryMapper.map(accountEntry)));
+        }
+        nextPage = endPage;
+      }
+    } catch (final CompletionException cex) {
+      throw ServiceException.internalError(
+          "Could not fetch entries of account {0}, reason: {1}", accountIdentifier, cex.getCause() + " - " + cex.getMessage()
+      );
+    }
   }
 
   public Optional<Teller> findByAssignedEmployee(final String employeeIdentifier) {
     return this.tellerRepository.findFirstByAssignedEmployeeIdentifier(employeeIdentifier).map(TellerMapper::map);
   }
+
+  private static final class CashTotals implements Consumer<TellerEntry> {
+
+    private BigDecimal received = BigDecimal.ZERO;
+    private BigDecimal disbursed = BigDecimal.ZERO;
+
+    @Override
+    public void accept(final TellerEntry tellerEntry) {
+      if (tellerEntry.getType().equals(TellerEntry.Type.DEBIT.name())) {
+        this.received = this.received.add(tellerEntry.getAmount());
+      } else if (tellerEntry.getType().equals(TellerEntry.Type.CREDIT.name())) {
+        this.disbursed = this.disbursed.add(tellerEntry.getAmount());
+      }
+    }
+  }
 }
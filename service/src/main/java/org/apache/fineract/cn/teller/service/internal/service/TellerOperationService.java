@@ -18,8 +18,10 @@
  */
 package org.apache.fineract.cn.teller.service.internal.service;
 
+import com.google.common.collect.Lists;
 import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionPage;
 import org.apache.fineract.cn.teller.service.internal.mapper.ChequeMapper;
 import org.apache.fineract.cn.teller.service.internal.mapper.TellerTransactionMapper;
 import org.apache.fineract.cn.teller.service.internal.repository.ChequeEntity;
@@ -28,19 +30,32 @@ import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionEntity;
 import org.apache.fineract.cn.teller.service.internal.repository.TellerTransactionRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
 public class TellerOperationService {
 
+  private static final LocalDateTime EARLIEST_TRANSACTION_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+  private static final LocalDateTime LATEST_TRANSACTION_DATE = LocalDateTime.of(9999, 12, 31, 23, 59);
+  private static final int CHEQUE_BATCH_SIZE = 1000;
+
   private final Logger logger;
   private final TellerRepository tellerRepository;
   private final TellerTransactionRepository tellerTransactionRepository;
@@ -63,16 +78,8 @@ public class TellerOperationService {
     final Optional<TellerTransactionEntity> optionalTellerTransaction =
         this.tellerTransactionRepository.findByIdentifier(tellerTransactionIdentifier);
 
-    return optionalTellerTransaction.map(tellerTransactionEntity -> {
-      final TellerTransaction tellerTransaction = TellerTransactionMapper.map(tellerTransactionEntity);
-      if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
-        final Optional<ChequeEntity> optionalCheque =
-            this.chequeRepository.findByTellerTransactionId(tellerTransactionEntity.getId());
-
-        optionalCheque.ifPresent(chequeEntity -> tellerTransaction.setCheque(ChequeMapper.map(chequeEntity)));
-      }
-      return tellerTransaction;
-    });
+    return optionalTellerTransaction.map(tellerTransactionEntity ->
+        this.map(Collections.singletonList(tellerTransactionEntity)).get(0));
   }
 
   public List<TellerTransaction> fetchTellerTransactions(final String tellerCode, final String state) {
@@ -80,36 +87,90 @@ public class TellerOperationService {
     if (optionalTellerEntity.isPresent()) {
       final TellerEntity tellerEntity = optionalTellerEntity.get();
       if (state != null) {
-        return this.tellerTransactionRepository.findByTellerAndStateOrderByTransactionDateAsc(tellerEntity, state)
-            .stream()
-            .map(tellerTransactionEntity -> {
-              final TellerTransaction tellerTransaction = TellerTransactionMapper.map(tellerTransactionEntity);
-              if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
-                final Optional<ChequeEntity> optionalCheque =
-                    this.chequeRepository.findByTellerTransactionId(tellerTransactionEntity.getId());
-
-                optionalCheque.ifPresent(chequeEntity -> tellerTransaction.setCheque(ChequeMapper.map(chequeEntity)));
-              }
-              return tellerTransaction;
-            })
-            .collect(Collectors.toList());
+        return this.map(
+            this.tellerTransactionRepository.findByTellerAndStateOrderByTransactionDateAsc(tellerEntity, state));
       } else {
-        return this.tellerTransactionRepository.findByTellerOrderByTransactionDateAsc(tellerEntity)
-            .stream()
-            .map(tellerTransactionEntity -> {
-              final TellerTransaction tellerTransaction = TellerTransactionMapper.map(tellerTransactionEntity);
-              if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
-                final Optional<ChequeEntity> optionalCheque =
-                    this.chequeRepository.findByTellerTransactionId(tellerTransactionEntity.getId());
-
-                optionalCheque.ifPresent(chequeEntity -> tellerTransaction.setCheque(ChequeMapper.map(chequeEntity)));
-              }
-              return tellerTransaction;
-            })
-            .collect(Collectors.toList());
+        return this.map(this.tellerTransactionRepository.findByTellerOrderByTransactionDateAsc(tellerEntity));
       }
     } else {
       throw ServiceException.notFound("Teller {0} not found.", tellerCode);
     }
   }
+
+  @Transactional(readOnly = true)
+  public TellerTransactionPage fetchTellerTransactionPage(final String tellerCode, final String state,
+                                                          final int pageSize, final String cursor,
+                                                          final LocalDateTime from, final LocalDateTime to) {
+    final LocalDateTime startDate = from != null ? from : EARLIEST_TRANSACTION_DATE;
+    final LocalDateTime endDate = to != null ? to : LATEST_TRANSACTION_DATE;
+
+    final TellerEntity tellerEntity = this.tellerRepository.findByIdentifier(tellerCode)
+        .orElseThrow(() -> ServiceException.notFound("Teller {0} not found.", tellerCode));
+
+    final LocalDateTime lastDate;
+    final Long lastId;
+    if (cursor != null) {
+      try {
+        final String[] position =
+            new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        lastDate = DateConverter.fromIsoString(position[0]);
+        lastId = Long.valueOf(position[1]);
+      } catch (final RuntimeException ex) {
+        throw ServiceException.badRequest("Cursor {0} not valid.", cursor);
+      }
+    } else {
+      lastDate = startDate;
+      lastId = 0L;
+    }
+
+    final PageRequest pageRequest = new PageRequest(0, pageSize);
+    final Slice<TellerTransactionEntity> slice;
+    if (state != null) {
+      slice = this.tellerTransactionRepository.findNextPageByState(
+          tellerEntity, state, startDate, endDate, lastDate, lastId, pageRequest);
+    } else {
+      slice = this.tellerTransactionRepository.findNextPage(
+          tellerEntity, startDate, endDate, lastDate, lastId, pageRequest);
+    }
+
+    final TellerTransactionPage tellerTransactionPage = new TellerTransactionPage();
+    tellerTransactionPage.setTellerTransactions(this.map(slice.getContent()));
+
+    if (slice.hasNext()) {
+      final TellerTransactionEntity last = slice.getContent().get(slice.getNumberOfElements() - 1);
+      tellerTransactionPage.setNextCursor(this.encodeCursor(last.getTransactionDate(), last.getId()));
+    }
+
+    return tellerTransactionPage;
+  }
+
+  private String encodeCursor(final LocalDateTime transactionDate, final Long id) {
+    final String position = DateConverter.toIsoString(transactionDate) + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private List<TellerTransaction> map(final List<TellerTransactionEntity> tellerTransactionEntities) {
+    final List<Long> chequeTransactionIds = tellerTransactionEntities
+        .stream()
+        .filter(tellerTransactionEntity -> tellerTransactionEntity.getTransactionType().equals(ServiceConstants.TX_CHEQUE))
+        .map(TellerTransactionEntity::getId)
+        .collect(Collectors.toList());
+
+    final HashMap<Long, ChequeEntity> chequesByTransactionId = new HashMap<>(chequeTransactionIds.size());
+    Lists.partition(chequeTransactionIds, CHEQUE_BATCH_SIZE).forEach(batch ->
+        this.chequeRepository.findByTellerTransactionIdIn(batch)
+            .forEach(chequeEntity -> chequesByTransactionId.put(chequeEntity.getTellerTransactionId(), chequeEntity)));
+
+    return tellerTransactionEntities
+        .stream()
+        .map(tellerTransactionEntity -> {
+          final TellerTransaction tellerTransaction = TellerTransactionMapper.map(tellerTransactionEntity);
+          final ChequeEntity chequeEntity = chequesByTransactionId.get(tellerTransactionEntity.getId());
+          if (chequeEntity != null) {
+            tellerTransaction.setCheque(ChequeMapper.map(chequeEntity));
+          }
+          return tellerTransaction;
+        })
+        .collect(Collectors.toList());
+  }
 }
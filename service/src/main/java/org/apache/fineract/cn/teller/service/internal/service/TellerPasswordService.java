@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service;
+
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
+import org.apache.fineract.cn.teller.service.internal.util.TenantScopedCache;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.cn.crypto.HashGenerator;
+import org.apache.fineract.cn.crypto.SaltGenerator;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Base64Utils;
+
+/**
+ * Derives and verifies teller passwords on bounded pools of their own, remembering successful unlocks for a
+ * short while.
+ */
+@Service
+public class TellerPasswordService {
+
+  private final Logger logger;
+  private final HashGenerator hashGenerator;
+  private final SaltGenerator saltGenerator;
+  private final int iterationCount;
+  private final int length;
+  private final ThreadPoolExecutor verifierExecutor;
+  private final ThreadPoolExecutor batchExecutor;
+  private final TenantScopedCache<UnlockToken> unlockTokens;
+
+  @Autowired
+  public TellerPasswordService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                               final HashGenerator hashGenerator,
+                               final SaltGenerator saltGenerator,
+                               @Value("${teller.password.iterationCount:2048}") final int iterationCount,
+                               @Value("${teller.password.length:2048}") final int length,
+                               @Value("${teller.password.verifierPoolSize:2}") final int verifierPoolSize,
+                               @Value("${teller.password.verifierQueueCapacity:32}") final int verifierQueueCapacity,
+                               @Value("${teller.password.batchPoolSize:2}") final int batchPoolSize,
+                               @Value("${teller.password.batchQueueCapacity:64}") final int batchQueueCapacity,
+                               @Value("${teller.password.unlockTokenMaximumSize:10000}") final long unlockTokenMaximumSize,
+                               @Value("${teller.password.unlockTokenExpireAfterWriteInSeconds:300}") final long unlockTokenExpireAfterWrite) {
+    super();
+    this.logger = logger;
+    this.hashGenerator = hashGenerator;
+    this.saltGenerator = saltGenerator;
+    this.iterationCount = iterationCount;
+    this.length = length;
+
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.verifierExecutor = new ThreadPoolExecutor(verifierPoolSize, verifierPoolSize,
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(verifierQueueCapacity),
+        runnable -> {
+          final Thread thread = new Thread(runnable, "teller-password-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    final AtomicInteger batchThreadCount = new AtomicInteger();
+    this.batchExecutor = new ThreadPoolExecutor(batchPoolSize, batchPoolSize,
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(batchQueueCapacity),
+        runnable -> {
+          final Thread thread = new Thread(runnable, "teller-password-batch-" + batchThreadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    this.unlockTokens = new TenantScopedCache<>(unlockTokenMaximumSize, unlockTokenExpireAfterWrite, TimeUnit.SECONDS);
+  }
+
+  public void encryptPassword(final String password, final TellerEntity tellerEntity) {
+    this.derivePassword(password).applyTo(tellerEntity);
+  }
+
+  /**
+   * Derives the password hashes of many tellers, keyed by teller code, on the batch pool with the calling thread
+   * taking over whatever the pool can not queue. Meant to be called before a database transaction is opened.
+   */
+  public Map<String, PasswordHash> derivePasswords(final Map<String, String> passwords) {
+    final HashMap<String, CompletableFuture<PasswordHash>> derivations = new HashMap<>();
+    passwords.forEach((tellerCode, password) -> derivations.put(tellerCode,
+        CompletableFuture.supplyAsync(() -> this.derivePassword(password), this.batchExecutor)));
+
+    final HashMap<String, PasswordHash> passwordHashes = new HashMap<>();
+    try {
+      derivations.forEach((tellerCode, derivation) -> passwordHashes.put(tellerCode, derivation.join()));
+    } catch (final CompletionException cex) {
+      throw ServiceException.internalError("Could not derive teller passwords.");
+    }
+    return passwordHashes;
+  }
+
+  /**
+   * Verifies the password against the teller's stored hash. If the hash was derived with other parameters
+   * than the configured ones, a valid verification carries the password hash derived with the configured
+   * parameters, to be stored in place of the old one.
+   */
+  public Verification verify(final TellerEntity tellerEntity, final String password) {
+    final String tokenKey = tellerEntity.getIdentifier() + ":" + tellerEntity.getAssignedEmployeeIdentifier() + ":"
+        + tellerEntity.getSalt();
+    final byte[] token = TellerPasswordService.token(tellerEntity.getSalt(), password);
+
+    final Optional<UnlockToken> optionalUnlockToken = this.unlockTokens.get(tokenKey);
+    if (optionalUnlockToken.isPresent() && MessageDigest.isEqual(optionalUnlockToken.get().token, token)) {
+      return new Verification(true, this.isOutdated(tellerEntity) ? optionalUnlockToken.get().rehashedPassword : null);
+    }
+
+    final byte[] salt = Base64Utils.decodeFromString(tellerEntity.getSalt());
+    final int storedIterationCount = Optional.ofNullable(tellerEntity.getHashIterationCount())
+        .orElse(ServiceConstants.ITERATION_COUNT);
+    final int storedLength = Optional.ofNullable(tellerEntity.getHashLength()).orElse(ServiceConstants.LENGTH);
+    final boolean outdated = this.isOutdated(tellerEntity);
+
+    final Verification verification;
+    try {
+      verification = CompletableFuture.supplyAsync(() -> {
+        final String givenPassword = this.derive(password, salt, storedIterationCount, storedLength);
+        if (!MessageDigest.isEqual(givenPassword.getBytes(StandardCharsets.US_ASCII),
+            tellerEntity.getPassword().getBytes(StandardCharsets.US_ASCII))) {
+          return new Verification(false, null);
+        }
+        return new Verification(true, outdated ? this.derive(password, salt, this.iterationCount, this.length) : null);
+      }, this.verifierExecutor).join();
+    } catch (final RejectedExecutionException rex) {
+      this.logger.warn("Password verification for teller {} rejected, verifier pool exhausted.",
+          tellerEntity.getIdentifier());
+      throw ServiceException.conflict("Teller {0} is busy, please try again.", tellerEntity.getIdentifier());
+    } catch (final CompletionException cex) {
+      throw ServiceException.internalError("Could not verify password of teller {0}.", tellerEntity.getIdentifier());
+    }
+
+    if (verification.isValid()) {
+      this.unlockTokens.put(tokenKey, new UnlockToken(token, verification.getRehashedPassword().orElse(null)));
+    }
+    return verification;
+  }
+
+  public int getIterationCount() {
+    return this.iterationCount;
+  }
+
+  public int getLength() {
+    return this.length;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    this.verifierExecutor.shutdown();
+    this.batchExecutor.shutdown();
+  }
+
+  private boolean isOutdated(final TellerEntity tellerEntity) {
+    return !Integer.valueOf(this.iterationCount).equals(tellerEntity.getHashIterationCount())
+        || !Integer.valueOf(this.length).equals(tellerEntity.getHashLength());
+  }
+
+  private PasswordHash derivePassword(final String password) {
+    final byte[] salt = this.saltGenerator.createRandomSalt();
+    return new PasswordHash(Base64Utils.encodeToString(salt), this.derive(password, salt, this.iterationCount, this.length),
+        this.iterationCount, this.length);
+  }
+
+  private String derive(final String password, final byte[] salt, final int iterationCount, final int length) {
+    return Base64Utils.encodeToString(this.hashGenerator.hash(password, salt, iterationCount, length));
+  }
+
+  private static byte[] token(final String salt, final String password) {
+    try {
+      final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      messageDigest.update(salt.getBytes(StandardCharsets.UTF_8));
+      return messageDigest.digest(password.getBytes(StandardCharsets.UTF_8));
+    } catch (final NoSuchAlgorithmException nsaex) {
+      throw new IllegalStateException(nsaex);
+    }
+  }
+
+  public static final class PasswordHash {
+
+    private final String salt;
+    private final String password;
+    private final int iterationCount;
+    private final int length;
+
+    private PasswordHash(final String salt, final String password, final int iterationCount, final int length) {
+      super();
+      this.salt = salt;
+      this.password = password;
+      this.iterationCount = iterationCount;
+      this.length = length;
+    }
+
+    public void applyTo(final TellerEntity tellerEntity) {
+      tellerEntity.setSalt(this.salt);
+      tellerEntity.setPassword(this.password);
+      tellerEntity.setHashIterationCount(this.iterationCount);
+      tellerEntity.setHashLength(this.length);
+    }
+  }
+
+  public static final class Verification {
+
+    private final boolean valid;
+    private final String rehashedPassword;
+
+    private Verification(final boolean valid, final String rehashedPassword) {
+      super();
+      this.valid = valid;
+      this.rehashedPassword = rehashedPassword;
+    }
+
+    public boolean isValid() {
+      return this.valid;
+    }
+
+    public Optional<String> getRehashedPassword() {
+      return Optional.ofNullable(this.rehashedPassword);
+    }
+  }
+
+  private static final class UnlockToken {
+
+    private final byte[] token;
+    private final String rehashedPassword;
+
+    private UnlockToken(final byte[] token, final String rehashedPassword) {
+      super();
+      this.token = token;
+      this.rehashedPassword = rehashedPassword;
+    }
+  }
+}
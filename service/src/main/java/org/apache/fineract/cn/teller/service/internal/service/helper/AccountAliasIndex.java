@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.repository.AccountAliasEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.AccountAliasRepository;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class AccountAliasIndex {
+
+  private final Logger logger;
+  private final AccountAliasRepository accountAliasRepository;
+
+  @Autowired
+  public AccountAliasIndex(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                           final AccountAliasRepository accountAliasRepository) {
+    super();
+    this.logger = logger;
+    this.accountAliasRepository = accountAliasRepository;
+  }
+
+  public Optional<String> findAccountIdentifier(final String alternativeAccountNumber) {
+    return this.accountAliasRepository.findByAlternativeAccountNumber(alternativeAccountNumber)
+        .map(AccountAliasEntity::getAccountIdentifier);
+  }
+
+  public List<String> findAlternativeAccountNumbers(final String accountIdentifier) {
+    return this.accountAliasRepository.findByAccountIdentifier(accountIdentifier)
+        .stream()
+        .map(AccountAliasEntity::getAlternativeAccountNumber)
+        .collect(Collectors.toList());
+  }
+
+  // runs in its own transaction, a concurrent insert of the same alias must not roll back the caller
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void register(final String alternativeAccountNumber, final String accountIdentifier) {
+    final AccountAliasEntity accountAliasEntity =
+        this.accountAliasRepository.findByAlternativeAccountNumber(alternativeAccountNumber)
+            .orElseGet(AccountAliasEntity::new);
+
+    if (accountIdentifier.equals(accountAliasEntity.getAccountIdentifier())) {
+      return;
+    }
+
+    accountAliasEntity.setAlternativeAccountNumber(alternativeAccountNumber);
+    accountAliasEntity.setAccountIdentifier(accountIdentifier);
+    accountAliasEntity.setCreatedOn(LocalDateTime.now(Clock.systemUTC()));
+    this.accountAliasRepository.save(accountAliasEntity);
+    this.logger.debug("Alternative account number {} indexed for account {}.", alternativeAccountNumber,
+        accountIdentifier);
+  }
+
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void evict(final String accountIdentifier) {
+    final List<AccountAliasEntity> accountAliasEntities =
+        this.accountAliasRepository.findByAccountIdentifier(accountIdentifier);
+    if (!accountAliasEntities.isEmpty()) {
+      this.accountAliasRepository.delete(accountAliasEntities);
+    }
+  }
+
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void evictAlternativeAccountNumber(final String alternativeAccountNumber) {
+    this.accountAliasRepository.findByAlternativeAccountNumber(alternativeAccountNumber)
+        .ifPresent(this.accountAliasRepository::delete);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.util.TenantScopedCache;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the resolution of proposed account identifiers, identifier or alternative account number, for the current
+ * tenant. Balances are never cached, callers in need of a balance must use {@link AccountingService#findAccount}.
+ */
+@Service
+public class AccountCache {
+
+  private final Logger logger;
+  private final AccountingService accountingService;
+  private final TenantScopedCache<ResolvedAccount> resolvedAccounts;
+
+  @Autowired
+  public AccountCache(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                      final AccountingService accountingService,
+                      @Value("${teller.cache.account.maximumSize:10000}") final long maximumSize,
+                      @Value("${teller.cache.account.expireAfterWriteInSeconds:60}") final long expireAfterWrite) {
+    super();
+    this.logger = logger;
+    this.accountingService = accountingService;
+    this.resolvedAccounts = new TenantScopedCache<>(maximumSize, expireAfterWrite, TimeUnit.SECONDS);
+  }
+
+  public Optional<ResolvedAccount> find(final String accountIdentifier) {
+    final Optional<ResolvedAccount> optionalCachedAccount = this.resolvedAccounts.get(accountIdentifier);
+    if (optionalCachedAccount.isPresent()) {
+      return optionalCachedAccount;
+    }
+
+    final Optional<ResolvedAccount> optionalResolvedAccount =
+        this.accountingService.findAccount(accountIdentifier).map(ResolvedAccount::new);
+    optionalResolvedAccount.ifPresent(resolvedAccount -> {
+      this.resolvedAccounts.put(accountIdentifier, resolvedAccount);
+      this.resolvedAccounts.put(resolvedAccount.getIdentifier(), resolvedAccount);
+      this.resolvedAccounts.put(resolvedAccount.getAlternativeAccountNumber(), resolvedAccount);
+    });
+    return optionalResolvedAccount;
+  }
+
+  public String resolveAccountIdentifier(final String proposedAccountIdentifier) {
+    return this.find(proposedAccountIdentifier)
+        .map(ResolvedAccount::getIdentifier)
+        .orElseThrow(() -> ServiceException.notFound("Account {0} not found.", proposedAccountIdentifier));
+  }
+
+  public void invalidate(final String accountIdentifier) {
+    this.resolvedAccounts.get(accountIdentifier).ifPresent(resolvedAccount -> {
+      this.resolvedAccounts.invalidate(resolvedAccount.getIdentifier());
+      this.resolvedAccounts.invalidate(resolvedAccount.getAlternativeAccountNumber());
+    });
+    this.resolvedAccounts.invalidate(accountIdentifier);
+    this.logger.debug("Account {} evicted from cache.", accountIdentifier);
+  }
+}
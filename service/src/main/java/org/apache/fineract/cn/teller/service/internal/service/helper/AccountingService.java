@@ -19,6 +19,7 @@
 package org.apache.fineract.cn.teller.service.internal.service.helper;
 
 import org.apache.fineract.cn.teller.ServiceConstants;
+import java.util.List;
 import java.util.Optional;
 import org.apache.fineract.cn.accounting.api.v1.client.AccountNotFoundException;
 import org.apache.fineract.cn.accounting.api.v1.client.LedgerManager;
@@ -27,41 +28,60 @@ import org.apache.fineract.cn.accounting.api.v1.domain.AccountCommand;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountEntryPage;
 import org.apache.fineract.cn.accounting.api.v1.domain.AccountPage;
 import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.apache.fineract.cn.api.util.NotFoundException;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AccountingService {
 
+  private static final int ACCOUNT_PAGE_SIZE = 50;
+
   private final Logger logger;
   private final LedgerManager ledgerManager;
+  private final AccountAliasIndex accountAliasIndex;
 
   @Autowired
   public AccountingService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
-                           final LedgerManager ledgerManager) {
+                           final LedgerManager ledgerManager,
+                           final AccountAliasIndex accountAliasIndex) {
     super();
     this.logger = logger;
     this.ledgerManager = ledgerManager;
+    this.accountAliasIndex = accountAliasIndex;
   }
 
   public Optional<Account> findAccount(final String accountIdentifier) {
-    try {
-      return Optional.of(this.ledgerManager.findAccount(accountIdentifier));
-    } catch (final AccountNotFoundException anfex) {
-
-      final AccountPage accountPage = this.ledgerManager.fetchAccounts(true, accountIdentifier, null, true,
-          0, 10, null, null);
+    final Optional<Account> optionalAccount = this.fetchAccount(accountIdentifier);
+    if (optionalAccount.isPresent()) {
+      return optionalAccount;
+    }
 
-      return accountPage.getAccounts()
-          .stream()
-          .filter(account -> account.getAlternativeAccountNumber() != null
-              && account.getAlternativeAccountNumber().equals(accountIdentifier))
-          .findFirst();
+    final Optional<String> optionalIndexedIdentifier = this.accountAliasIndex.findAccountIdentifier(accountIdentifier);
+    if (optionalIndexedIdentifier.isPresent()) {
+      final Optional<Account> optionalIndexedAccount = this.fetchAccount(optionalIndexedIdentifier.get());
+      if (optionalIndexedAccount.isPresent()
+          && accountIdentifier.equals(optionalIndexedAccount.get().getAlternativeAccountNumber())) {
+        return optionalIndexedAccount;
+      }
+      this.logger.debug("Alternative account number {} no longer valid.", accountIdentifier);
+      this.accountAliasIndex.evictAlternativeAccountNumber(accountIdentifier);
     }
+
+    final Optional<Account> optionalAlternativeAccount = this.searchByAlternativeAccountNumber(accountIdentifier);
+    optionalAlternativeAccount.ifPresent(account -> {
+      try {
+        this.accountAliasIndex.register(accountIdentifier, account.getIdentifier());
+      } catch (final DataIntegrityViolationException divex) {
+        this.logger.debug("Alternative account number {} already indexed.", accountIdentifier);
+      }
+    });
+    return optionalAlternativeAccount;
   }
 
   public AccountEntryPage fetchAccountEntries(final String accountIdentifier, final String dateRange, final Integer pageIndex,
@@ -70,10 +90,23 @@ public class AccountingService {
         Sort.Direction.ASC.name());
   }
 
+  public List<JournalEntry> fetchJournalEntries(final String accountIdentifier, final String dateRange) {
+    return this.ledgerManager.fetchJournalEntries(dateRange, accountIdentifier, null);
+  }
+
   public void postJournalEntry(final JournalEntry journalEntry) {
     this.ledgerManager.createJournalEntry(journalEntry);
   }
 
+  public boolean journalEntryExists(final String transactionIdentifier) {
+    try {
+      this.ledgerManager.findJournalEntry(transactionIdentifier);
+      return true;
+    } catch (final NotFoundException nfex) {
+      return false;
+    }
+  }
+
   public void closeAccount(final String accountIdentifier) {
     final AccountCommand accountCommand = new AccountCommand();
     accountCommand.setAction(AccountCommand.Action.CLOSE.name());
@@ -96,4 +129,32 @@ public class AccountingService {
       throw ServiceException.notFound("Account {0} not found.", proposedAccountIdentifier);
     }
   }
+
+  private Optional<Account> fetchAccount(final String accountIdentifier) {
+    try {
+      return Optional.of(this.ledgerManager.findAccount(accountIdentifier));
+    } catch (final AccountNotFoundException anfex) {
+      return Optional.empty();
+    }
+  }
+
+  private Optional<Account> searchByAlternativeAccountNumber(final String alternativeAccountNumber) {
+    int pageIndex = 0;
+    AccountPage accountPage;
+    do {
+      accountPage = this.ledgerManager.fetchAccounts(true, alternativeAccountNumber, null, true,
+          pageIndex, ACCOUNT_PAGE_SIZE, null, null);
+
+      final Optional<Account> optionalAccount = accountPage.getAccounts()
+          .stream()
+          .filter(account -> alternativeAccountNumber.equals(account.getAlternativeAccountNumber()))
+          .findFirst();
+      if (optionalAccount.isPresent()) {
+        return optionalAccount;
+      }
+      pageIndex++;
+    } while (accountPage.getTotalPages() != null && pageIndex < accountPage.getTotalPages());
+
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import com.google.gson.Gson;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.cn.deposit.api.v1.definition.domain.Charge;
+import org.apache.fineract.cn.deposit.api.v1.definition.domain.ProductDefinition;
+
+public class CataloguedProduct {
+
+  private static final Gson GSON = new Gson();
+
+  private final String productDefinition;
+  private final Map<String, List<Charge>> chargesByTransactionType;
+  private final Map<String, ChargePlan> chargePlansByTransactionType;
+
+  public CataloguedProduct(final ProductDefinition productDefinition,
+                           final Map<String, List<Charge>> chargesByTransactionType) {
+    super();
+    this.productDefinition = GSON.toJson(productDefinition);
+    this.chargesByTransactionType = Collections.unmodifiableMap(chargesByTransactionType);
+    final HashMap<String, ChargePlan> chargePlans = new HashMap<>(chargesByTransactionType.size());
+    chargesByTransactionType.forEach((transactionType, charges) ->
+        chargePlans.put(transactionType, ChargePlan.compileProductCharges(charges)));
+    this.chargePlansByTransactionType = Collections.unmodifiableMap(chargePlans);
+  }
+
+  /**
+   * Returns a copy of the catalogued definition, the cached one is shared by all callers.
+   */
+  public ProductDefinition getProductDefinition() {
+    return GSON.fromJson(this.productDefinition, ProductDefinition.class);
+  }
+
+  public List<Charge> getCharges(final String transactionType) {
+    return this.chargesByTransactionType.getOrDefault(transactionType, Collections.emptyList());
+  }
+
+  public ChargePlan getChargePlan(final String transactionType) {
+    return this.chargePlansByTransactionType.getOrDefault(transactionType, ChargePlan.EMPTY);
+  }
+}
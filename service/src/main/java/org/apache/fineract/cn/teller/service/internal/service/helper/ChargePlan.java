@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fineract.cn.teller.api.v1.domain.Charge;
+
+/**
+ * Immutable, precompiled set of charge rules for one product and transaction type.
+ */
+public final class ChargePlan {
+
+  public static final ChargePlan EMPTY = new ChargePlan(new ChargeRule[0]);
+
+  private final ChargeRule[] rules;
+
+  private ChargePlan(final ChargeRule[] rules) {
+    super();
+    this.rules = rules;
+  }
+
+  public static ChargePlan compileProductCharges(
+      final List<org.apache.fineract.cn.deposit.api.v1.definition.domain.Charge> productCharges) {
+    if (productCharges == null || productCharges.isEmpty()) {
+      return ChargePlan.EMPTY;
+    }
+    final ChargeRule[] rules = new ChargeRule[productCharges.size()];
+    for (int i = 0; i < rules.length; i++) {
+      rules[i] = ChargeRule.of(productCharges.get(i));
+    }
+    return new ChargePlan(rules);
+  }
+
+  public List<Charge> evaluate(final BigDecimal amount) {
+    final ArrayList<Charge> charges = new ArrayList<>(this.rules.length);
+    for (final ChargeRule rule : this.rules) {
+      charges.add(rule.apply(amount));
+    }
+    return charges;
+  }
+}
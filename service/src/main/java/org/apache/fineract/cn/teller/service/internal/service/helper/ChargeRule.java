@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import org.apache.fineract.cn.teller.api.v1.domain.Charge;
+
+public final class ChargeRule {
+
+  private static final MathContext RATE_CONTEXT = new MathContext(2, RoundingMode.HALF_EVEN);
+  private static final BigDecimal HUNDRED = BigDecimal.valueOf(100.00D);
+
+  private final String code;
+  private final String name;
+  private final String incomeAccountIdentifier;
+  private final BigDecimal value;
+  private final boolean proportional;
+
+  private ChargeRule(final String code,
+                     final String name,
+                     final String incomeAccountIdentifier,
+                     final BigDecimal value,
+                     final boolean proportional) {
+    super();
+    this.code = code;
+    this.name = name;
+    this.incomeAccountIdentifier = incomeAccountIdentifier;
+    this.value = value;
+    this.proportional = proportional;
+  }
+
+  public static ChargeRule fixed(final String code, final String name, final String incomeAccountIdentifier,
+                                 final Double amount) {
+    return new ChargeRule(code, name, incomeAccountIdentifier, BigDecimal.valueOf(amount), false);
+  }
+
+  /**
+   * The percentage is scaled to a rate once, using the same precision charges have always been calculated with.
+   */
+  public static ChargeRule proportional(final String code, final String name, final String incomeAccountIdentifier,
+                                        final Double percentage) {
+    return new ChargeRule(code, name, incomeAccountIdentifier,
+        BigDecimal.valueOf(percentage).divide(HUNDRED, RATE_CONTEXT), true);
+  }
+
+  public static ChargeRule of(final org.apache.fineract.cn.deposit.api.v1.definition.domain.Charge productCharge) {
+    if (productCharge.getProportional()) {
+      return ChargeRule.proportional(productCharge.getActionIdentifier(), productCharge.getName(),
+          productCharge.getIncomeAccountIdentifier(), productCharge.getAmount());
+    } else {
+      return ChargeRule.fixed(productCharge.getActionIdentifier(), productCharge.getName(),
+          productCharge.getIncomeAccountIdentifier(), productCharge.getAmount());
+    }
+  }
+
+  public boolean isProportional() {
+    return this.proportional;
+  }
+
+  Charge apply(final BigDecimal amount) {
+    final Charge charge = new Charge();
+    charge.setCode(this.code);
+    charge.setIncomeAccountIdentifier(this.incomeAccountIdentifier);
+    charge.setName(this.name);
+    charge.setAmount(this.proportional ? amount.multiply(this.value) : this.value);
+    return charge;
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.cn.lang.AutoTenantContext;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.api.v1.domain.MICR;
+import org.apache.fineract.cn.teller.service.internal.repository.ChequeEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.ChequeRepository;
+import org.apache.fineract.cn.teller.service.internal.util.ContextPropagatingExecutor;
+import org.apache.fineract.cn.teller.service.internal.util.MICRParser;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Knows which cheques were taken by this service, using a Bloom filter per tenant seeded from the cheque table
+ * in the background; possible hits are confirmed against the table.
+ */
+@Service
+public class ChequeRegistry {
+
+  private static final int SEED_PAGE_SIZE = 1000;
+  private static final int LOOKUP_CHUNK_SIZE = 500;
+
+  private final Logger logger;
+  private final ChequeRepository chequeRepository;
+  private final boolean enabled;
+  private final int expectedInsertions;
+  private final double falsePositiveProbability;
+  private final ConcurrentHashMap<String, BloomFilter<CharSequence>> filters;
+  private final ConcurrentHashMap<String, BloomFilter<CharSequence>> seedingFilters;
+  private final Set<String> seedingTenants;
+  private final ContextPropagatingExecutor seedExecutor;
+
+  @Autowired
+  public ChequeRegistry(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                        final ChequeRepository chequeRepository,
+                        @Value("${teller.cheque.registry.enabled:true}") final boolean enabled,
+                        @Value("${teller.cheque.registry.expectedInsertions:1000000}") final int expectedInsertions,
+                        @Value("${teller.cheque.registry.falsePositiveProbability:0.01}") final double falsePositiveProbability) {
+    super();
+    this.logger = logger;
+    this.chequeRepository = chequeRepository;
+    this.enabled = enabled;
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveProbability = falsePositiveProbability;
+    this.filters = new ConcurrentHashMap<>();
+    this.seedingFilters = new ConcurrentHashMap<>();
+    this.seedingTenants = ConcurrentHashMap.newKeySet();
+    this.seedExecutor = new ContextPropagatingExecutor("teller-cheque-registry", 1, 64);
+  }
+
+  public boolean mightBeUsed(final MICR micr) {
+    if (!this.enabled) {
+      return true;
+    }
+
+    final Optional<BloomFilter<CharSequence>> optionalFilter = this.filter();
+    if (optionalFilter.isPresent()) {
+      final BloomFilter<CharSequence> filter = optionalFilter.get();
+      final boolean mightContain;
+      synchronized (filter) {
+        mightContain = filter.mightContain(MICRParser.toIdentifier(micr));
+      }
+      if (!mightContain) {
+        return false;
+      }
+    }
+
+    final Long count = this.chequeRepository.countByChequeNumberAndBranchSortCodeAndAccountNumber(
+        micr.getChequeNumber(), micr.getBranchSortCode(), micr.getAccountNumber());
+    return count != null && count > 0L;
+  }
+
+  /**
+   * Returns the identifiers of all given cheques already taken, looking up the possible hits in chunks instead of
+   * one query per cheque.
+   */
+  public Set<String> findUsed(final Collection<MICR> micrs) {
+    final HashMap<String, MICR> candidates = new HashMap<>();
+    final BloomFilter<CharSequence> filter = this.enabled ? this.filter().orElse(null) : null;
+    micrs.forEach(micr -> {
+      final String identifier = MICRParser.toIdentifier(micr);
+      if (filter == null) {
+        candidates.put(identifier, micr);
+      } else {
+        synchronized (filter) {
+          if (filter.mightContain(identifier)) {
+            candidates.put(identifier, micr);
+          }
+        }
+      }
+    });
+
+    final HashSet<String> used = new HashSet<>();
+    if (candidates.isEmpty()) {
+      return used;
+    }
+
+    final List<String> chequeNumbers = candidates.values().stream()
+        .map(MICR::getChequeNumber)
+        .distinct()
+        .collect(Collectors.toList());
+    for (int from = 0; from < chequeNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+      this.chequeRepository.findByChequeNumberIn(
+          chequeNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, chequeNumbers.size())))
+          .forEach(chequeEntity -> {
+            final String identifier = ChequeRegistry.identifier(chequeEntity);
+            if (candidates.containsKey(identifier)) {
+              used.add(identifier);
+            }
+          });
+    }
+    return used;
+  }
+
+  /**
+   * Adds the cheque to the filter of the current tenant, and to the one being seeded, if any, so a cheque taken
+   * while seeding is not lost when the seeded filter replaces the current one.
+   */
+  public void register(final ChequeEntity chequeEntity) {
+    if (this.enabled) {
+      final String tenant = TenantContextHolder.checkedGetIdentifier();
+      final String identifier = ChequeRegistry.identifier(chequeEntity);
+      // the seeding filter first: a seed completing in between has already replaced the current filter
+      ChequeRegistry.put(this.seedingFilters.get(tenant), identifier);
+      ChequeRegistry.put(this.filters.get(tenant), identifier);
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${teller.cheque.registry.reseedIntervalInMillis:3600000}",
+      fixedDelayString = "${teller.cheque.registry.reseedIntervalInMillis:3600000}"
+  )
+  public void reseed() {
+    if (this.enabled) {
+      new ArrayList<>(this.filters.keySet()).forEach(tenant -> {
+        if (this.seedingTenants.add(tenant)) {
+          try (final AutoTenantContext ignored = new AutoTenantContext(tenant)) {
+            this.seed();
+          }
+        }
+      });
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    this.seedExecutor.shutdown();
+  }
+
+  /**
+   * Returns the seeded filter of the current tenant, or nothing while it is still being seeded.
+   */
+  private Optional<BloomFilter<CharSequence>> filter() {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final BloomFilter<CharSequence> filter = this.filters.get(tenant);
+    if (filter == null && this.seedingTenants.add(tenant)) {
+      this.seedExecutor.run(this::seed);
+    }
+    return Optional.ofNullable(filter);
+  }
+
+  /**
+   * Seeds a new filter for the current tenant, which the caller must have added to the seeding tenants.
+   */
+  private void seed() {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final BloomFilter<CharSequence> filter = BloomFilter.create(
+        Funnels.stringFunnel(StandardCharsets.UTF_8), this.expectedInsertions, this.falsePositiveProbability);
+    this.seedingFilters.put(tenant, filter);
+
+    try {
+      long lastId = 0L;
+      long seeded = 0L;
+      Slice<ChequeEntity> chequeEntities;
+      do {
+        chequeEntities = this.chequeRepository.findByIdGreaterThanOrderByIdAsc(lastId, new PageRequest(0, SEED_PAGE_SIZE));
+        for (final ChequeEntity chequeEntity : chequeEntities) {
+          ChequeRegistry.put(filter, ChequeRegistry.identifier(chequeEntity));
+          lastId = chequeEntity.getId();
+          seeded++;
+        }
+      } while (chequeEntities.hasNext());
+
+      this.filters.put(tenant, filter);
+      this.logger.info("Cheque registry of tenant {} seeded with {} cheques.", tenant, seeded);
+    } catch (final RuntimeException rex) {
+      this.logger.warn("Could not seed cheque registry of tenant {}.", tenant, rex);
+    } finally {
+      this.seedingFilters.remove(tenant);
+      this.seedingTenants.remove(tenant);
+    }
+  }
+
+  private static void put(final BloomFilter<CharSequence> filter, final String identifier) {
+    if (filter != null) {
+      synchronized (filter) {
+        filter.put(identifier);
+      }
+    }
+  }
+
+  private static String identifier(final ChequeEntity chequeEntity) {
+    final MICR micr = new MICR();
+    micr.setChequeNumber(chequeEntity.getChequeNumber());
+    micr.setBranchSortCode(chequeEntity.getBranchSortCode());
+    micr.setAccountNumber(chequeEntity.getAccountNumber());
+    return MICRParser.toIdentifier(micr);
+  }
+}
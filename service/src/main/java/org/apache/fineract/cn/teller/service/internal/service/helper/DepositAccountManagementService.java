@@ -18,17 +18,10 @@
  */
 package org.apache.fineract.cn.teller.service.internal.service.helper;
 
-import org.apache.fineract.cn.deposit.api.v1.definition.domain.Action;
 import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.domain.Charge;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
 import org.apache.fineract.cn.deposit.api.v1.EventConstants;
 import org.apache.fineract.cn.deposit.api.v1.client.DepositAccountManager;
 import org.apache.fineract.cn.deposit.api.v1.definition.domain.ProductDefinition;
@@ -43,13 +36,16 @@ public class DepositAccountManagementService {
 
   private final Logger logger;
   private final DepositAccountManager depositAccountManager;
+  private final DepositProductCatalogue depositProductCatalogue;
 
   @Autowired
   public DepositAccountManagementService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
-                                         final DepositAccountManager depositAccountManager) {
+                                         final DepositAccountManager depositAccountManager,
+                                         final DepositProductCatalogue depositProductCatalogue) {
     super();
     this.logger = logger;
     this.depositAccountManager = depositAccountManager;
+    this.depositProductCatalogue = depositProductCatalogue;
   }
 
   public List<ProductInstance> fetchProductInstances(final String customerIdentifier) {
@@ -61,39 +57,9 @@ public class DepositAccountManagementService {
   }
 
   public List<Charge> getCharges(final TellerTransaction tellerTransaction) {
-    final List<Charge> charges = new ArrayList<>();
-    final ProductDefinition productDefinition =
-        this.depositAccountManager.findProductDefinition(tellerTransaction.getProductIdentifier());
-    final List<Action> actions = this.depositAccountManager.fetchActions();
-
-    final HashMap<String, Action> mappedActions = new HashMap<>(actions.size());
-    actions.forEach(action -> mappedActions.put(action.getIdentifier(), action));
-
-    final MathContext mathContext = new MathContext(2, RoundingMode.HALF_EVEN);
-    final Set<org.apache.fineract.cn.deposit.api.v1.definition.domain.Charge> productCharges = productDefinition.getCharges();
-    productCharges.forEach(productCharge -> {
-      if (productCharge.getAmount() > 0.00D) {
-        final Action action = mappedActions.get(productCharge.getActionIdentifier());
-        if (action != null
-            && action.getTransactionType().equals(tellerTransaction.getTransactionType())) {
-          final Charge charge = new Charge();
-          charge.setCode(productCharge.getActionIdentifier());
-          charge.setIncomeAccountIdentifier(productCharge.getIncomeAccountIdentifier());
-          charge.setName(productCharge.getName());
-          if (productCharge.getProportional()) {
-            charge.setAmount(
-                tellerTransaction.getAmount().multiply(
-                    BigDecimal.valueOf(productCharge.getAmount()).divide(BigDecimal.valueOf(100.00D), mathContext)
-                )
-            );
-          } else {
-            charge.setAmount(BigDecimal.valueOf(productCharge.getAmount()));
-          }
-          charges.add(charge);
-        }
-      }
-    });
-    return charges;
+    return this.depositProductCatalogue
+        .findChargePlan(tellerTransaction.getProductIdentifier(), tellerTransaction.getTransactionType())
+        .evaluate(tellerTransaction.getAmount());
   }
 
   public void activateProductInstance(final String customerAccountIdentifier) {
@@ -109,6 +75,6 @@ public class DepositAccountManagementService {
   }
 
   public ProductDefinition findProductDefinition(final String productIdentifier) {
-    return this.depositAccountManager.findProductDefinition(productIdentifier);
+    return this.depositProductCatalogue.findProduct(productIdentifier).getProductDefinition();
   }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.fineract.cn.deposit.api.v1.client.DepositAccountManager;
+import org.apache.fineract.cn.deposit.api.v1.definition.domain.Action;
+import org.apache.fineract.cn.deposit.api.v1.definition.domain.Charge;
+import org.apache.fineract.cn.deposit.api.v1.definition.domain.ProductDefinition;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.util.TenantScopedCache;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DepositProductCatalogue {
+
+  private static final String ACTIONS_KEY = "actions";
+
+  private final Logger logger;
+  private final DepositAccountManager depositAccountManager;
+  private final TenantScopedCache<CataloguedProduct> products;
+  private final TenantScopedCache<Map<String, Action>> actions;
+  private final AtomicLong invalidations;
+
+  @Autowired
+  public DepositProductCatalogue(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                 final DepositAccountManager depositAccountManager,
+                                 @Value("${teller.cache.product.maximumSize:1000}") final long maximumSize,
+                                 @Value("${teller.cache.product.expireAfterWriteInSeconds:300}") final long expireAfterWrite,
+                                 @Value("${teller.cache.action.maximumSize:1000}") final long actionsMaximumSize) {
+    super();
+    this.logger = logger;
+    this.depositAccountManager = depositAccountManager;
+    this.products = new TenantScopedCache<>(maximumSize, expireAfterWrite, TimeUnit.SECONDS);
+    this.actions = new TenantScopedCache<>(actionsMaximumSize, expireAfterWrite, TimeUnit.SECONDS);
+    this.invalidations = new AtomicLong();
+  }
+
+  public CataloguedProduct findProduct(final String productIdentifier) {
+    final Optional<CataloguedProduct> optionalCataloguedProduct = this.products.get(productIdentifier);
+    if (optionalCataloguedProduct.isPresent()) {
+      return optionalCataloguedProduct.get();
+    }
+
+    final long invalidationsBeforeLoad = this.invalidations.get();
+    final ProductDefinition productDefinition = this.depositAccountManager.findProductDefinition(productIdentifier);
+    final Map<String, Action> mappedActions = this.fetchActions();
+
+    final HashMap<String, List<Charge>> chargesByTransactionType = new HashMap<>();
+    if (productDefinition.getCharges() != null) {
+      productDefinition.getCharges().forEach(productCharge -> {
+        final Action action = mappedActions.get(productCharge.getActionIdentifier());
+        if (action != null && productCharge.getAmount() != null && productCharge.getAmount() > 0.00D) {
+          chargesByTransactionType.computeIfAbsent(action.getTransactionType(), type -> new ArrayList<>())
+              .add(productCharge);
+        }
+      });
+    }
+
+    final CataloguedProduct cataloguedProduct = new CataloguedProduct(productDefinition, chargesByTransactionType);
+    // a product changed while loading could be older than the change, don't keep it
+    if (this.invalidations.get() == invalidationsBeforeLoad) {
+      this.products.put(productIdentifier, cataloguedProduct);
+      this.logger.debug("Product {} catalogued.", productIdentifier);
+    }
+    return cataloguedProduct;
+  }
+
+  public List<Charge> findCharges(final String productIdentifier, final String transactionType) {
+    return this.findProduct(productIdentifier).getCharges(transactionType);
+  }
+
+  public ChargePlan findChargePlan(final String productIdentifier, final String transactionType) {
+    return this.findProduct(productIdentifier).getChargePlan(transactionType);
+  }
+
+  public void invalidateProduct(final String productIdentifier) {
+    this.invalidations.incrementAndGet();
+    this.products.invalidate(productIdentifier);
+  }
+
+  public void invalidateAll() {
+    this.invalidations.incrementAndGet();
+    this.actions.invalidateAll();
+    this.products.invalidateAll();
+  }
+
+  private Map<String, Action> fetchActions() {
+    final Optional<Map<String, Action>> optionalActions = this.actions.get(ACTIONS_KEY);
+    if (optionalActions.isPresent()) {
+      return optionalActions.get();
+    }
+
+    final long invalidationsBeforeLoad = this.invalidations.get();
+    final Map<String, Action> mappedActions = Collections.unmodifiableMap(
+        this.depositAccountManager.fetchActions()
+            .stream()
+            .collect(Collectors.toMap(Action::getIdentifier, Function.identity(), (first, second) -> first))
+    );
+    if (this.invalidations.get() == invalidationsBeforeLoad) {
+      this.actions.put(ACTIONS_KEY, mappedActions);
+    }
+    return mappedActions;
+  }
+}
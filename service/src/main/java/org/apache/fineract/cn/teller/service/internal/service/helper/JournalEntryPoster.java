@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.util.RemoteCallFailures;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.cn.accounting.api.v1.domain.JournalEntry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Posts journal entries to the ledger on the calling thread; callers posting at the same
+ * time are served side by side. Post counts and latency are logged periodically.
+ */
+@Component
+public class JournalEntryPoster {
+
+  private final Logger logger;
+  private final AccountingService accountingService;
+
+  private final AtomicLong postCount = new AtomicLong();
+  private final AtomicLong retryCount = new AtomicLong();
+  private final AtomicLong failureCount = new AtomicLong();
+  private final AtomicLong postNanos = new AtomicLong();
+
+  @Autowired
+  public JournalEntryPoster(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                            final AccountingService accountingService) {
+    super();
+    this.logger = logger;
+    this.accountingService = accountingService;
+  }
+
+  /**
+   * Posts the journal entry and waits until the ledger has accepted it. A transient failure
+   * is retried once before it is reported to the caller, a rejection is reported right away.
+   */
+  public void post(final JournalEntry journalEntry) {
+    final long start = System.nanoTime();
+    try {
+      this.accountingService.postJournalEntry(journalEntry);
+    } catch (final RuntimeException rex) {
+      if (RemoteCallFailures.isRejection(rex)) {
+        this.failureCount.incrementAndGet();
+        throw rex;
+      }
+      this.retry(journalEntry, rex);
+    } finally {
+      this.postCount.incrementAndGet();
+      this.postNanos.addAndGet(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Posts the journal entry without retrying, for callers that retry on their own.
+   */
+  public void postOnce(final JournalEntry journalEntry) {
+    final long start = System.nanoTime();
+    try {
+      this.accountingService.postJournalEntry(journalEntry);
+    } catch (final RuntimeException rex) {
+      this.failureCount.incrementAndGet();
+      throw rex;
+    } finally {
+      this.postCount.incrementAndGet();
+      this.postNanos.addAndGet(System.nanoTime() - start);
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${teller.statistics.logIntervalInMillis:300000}",
+      fixedDelayString = "${teller.statistics.logIntervalInMillis:300000}"
+  )
+  public void logStatistics() {
+    final long posts = this.postCount.get();
+    if (posts > 0L) {
+      this.logger.info("Journal entries posted: {}, retried: {}, failed: {}, average latency: {} ms.",
+          posts, this.retryCount.get(), this.failureCount.get(),
+          TimeUnit.NANOSECONDS.toMillis(this.postNanos.get() / posts));
+    }
+  }
+
+  private void retry(final JournalEntry journalEntry, final RuntimeException failure) {
+    this.retryCount.incrementAndGet();
+    this.logger.info("Posting journal entry {} failed, retrying: {}",
+        journalEntry.getTransactionIdentifier(), failure.getMessage());
+    try {
+      // the failed post may still have been booked before its response got lost
+      if (!this.accountingService.journalEntryExists(journalEntry.getTransactionIdentifier())) {
+        this.accountingService.postJournalEntry(journalEntry);
+      }
+    } catch (final RuntimeException rex) {
+      this.failureCount.incrementAndGet();
+      throw rex;
+    }
+  }
+}
@@ -19,12 +19,15 @@
 package org.apache.fineract.cn.teller.service.internal.service.helper;
 
 import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.util.TenantScopedCache;
+import java.util.concurrent.TimeUnit;
 import org.apache.fineract.cn.office.api.v1.client.NotFoundException;
 import org.apache.fineract.cn.office.api.v1.client.OrganizationManager;
 import org.apache.fineract.cn.office.api.v1.domain.ExternalReference;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -32,26 +35,56 @@ public class OrganizationService {
 
   private final Logger logger;
   private final OrganizationManager organizationManager;
+  private final TenantScopedCache<Boolean> existingOffices;
+  private final TenantScopedCache<Boolean> missingOffices;
 
   @Autowired
   public OrganizationService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
-                             final OrganizationManager organizationManager) {
+                             final OrganizationManager organizationManager,
+                             @Value("${teller.cache.office.maximumSize:1000}") final long maximumSize,
+                             @Value("${teller.cache.office.expireAfterWriteInSeconds:300}") final long expireAfterWrite,
+                             @Value("${teller.cache.office.missingExpireAfterWriteInSeconds:30}") final long missingExpireAfterWrite) {
     super();
     this.logger = logger;
     this.organizationManager = organizationManager;
+    this.existingOffices = new TenantScopedCache<>(maximumSize, expireAfterWrite, TimeUnit.SECONDS);
+    this.missingOffices = new TenantScopedCache<>(maximumSize, missingExpireAfterWrite, TimeUnit.SECONDS);
   }
 
+  /**
+   * Answers from the office directory of the current tenant, both known and unknown offices are kept for a
+   * while. Unknown offices are kept much shorter, a branch sort code of an office about to be created must
+   * not be rejected for long.
+   */
   public boolean officeExists(final String officeIdentifier) {
+    if (this.existingOffices.get(officeIdentifier).isPresent()) {
+      return true;
+    }
+    if (this.missingOffices.get(officeIdentifier).isPresent()) {
+      return false;
+    }
+
     try {
       this.organizationManager.findOfficeByIdentifier(officeIdentifier);
-      this.logger.info("Talked to office");
+      this.existingOffices.put(officeIdentifier, Boolean.TRUE);
       return true;
     } catch (final NotFoundException nfex) {
       this.logger.warn("Office {} not found.", officeIdentifier);
+      this.missingOffices.put(officeIdentifier, Boolean.TRUE);
       return false;
     }
   }
 
+  public void officeCreated(final String officeIdentifier) {
+    this.missingOffices.invalidate(officeIdentifier);
+    this.existingOffices.put(officeIdentifier, Boolean.TRUE);
+  }
+
+  public void officeDeleted(final String officeIdentifier) {
+    this.existingOffices.invalidate(officeIdentifier);
+    this.missingOffices.put(officeIdentifier, Boolean.TRUE);
+  }
+
   public boolean employeeExists(final String employeeIdentifier) {
     try {
       this.organizationManager.findEmployee(employeeIdentifier);
@@ -27,6 +27,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import org.apache.fineract.cn.individuallending.api.v1.domain.product.AccountDesignators;
 import org.apache.fineract.cn.individuallending.api.v1.domain.workflow.Action;
 import org.apache.fineract.cn.lang.DateConverter;
@@ -39,9 +43,12 @@ import org.apache.fineract.cn.portfolio.api.v1.domain.ChargeDefinition;
 import org.apache.fineract.cn.portfolio.api.v1.domain.Command;
 import org.apache.fineract.cn.portfolio.api.v1.domain.CostComponent;
 import org.apache.fineract.cn.portfolio.api.v1.domain.Payment;
+import org.apache.fineract.cn.teller.service.internal.util.ContextPropagatingExecutor;
+import org.apache.fineract.cn.teller.service.internal.util.TenantScopedCache;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -49,13 +56,22 @@ public class PortfolioService {
 
   private final Logger logger;
   private final PortfolioManager portfolioManager;
+  private final ContextPropagatingExecutor remoteCallExecutor;
+  private final TenantScopedCache<String> chargeDefinitionNames;
+  private final TenantScopedCache<Boolean> warmedProducts;
 
   @Autowired
   public PortfolioService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
-                          final PortfolioManager portfolioManager) {
+                          final PortfolioManager portfolioManager,
+                          final ContextPropagatingExecutor remoteCallExecutor,
+                          @Value("${teller.cache.chargeDefinition.maximumSize:10000}") final long maximumSize,
+                          @Value("${teller.cache.chargeDefinition.expireAfterWriteInSeconds:300}") final long expireAfterWrite) {
     super();
     this.logger = logger;
     this.portfolioManager = portfolioManager;
+    this.remoteCallExecutor = remoteCallExecutor;
+    this.chargeDefinitionNames = new TenantScopedCache<>(maximumSize, expireAfterWrite, TimeUnit.SECONDS);
+    this.warmedProducts = new TenantScopedCache<>(maximumSize, expireAfterWrite, TimeUnit.SECONDS);
   }
 
   public List<Charge> getCharges(final String productIdentifier, final String caseIdentifier, final BigDecimal paymentSize) {
@@ -68,23 +84,35 @@ public class PortfolioService {
 
       final List<CostComponent> costComponents = payment.getCostComponents();
 
+      final ArrayList<CompletableFuture<Charge>> pendingCharges = new ArrayList<>();
       costComponents.forEach(costComponent -> {
         if (costComponent.getAmount() != null
             && costComponent.getAmount().compareTo(BigDecimal.ZERO) > 0) {
           final Charge charge = new Charge();
           charge.setCode(costComponent.getChargeIdentifier());
           charge.setAmount(costComponent.getAmount());
-          try {
-            final ChargeDefinition chargeDefinition =
-                this.portfolioManager.getChargeDefinition(productIdentifier, costComponent.getChargeIdentifier());
-            charge.setName(chargeDefinition.getName());
-          } catch (final NotFoundException nfex) {
-            this.logger.warn("Charge {} not found.", costComponent.getChargeIdentifier());
-            charge.setName(costComponent.getChargeIdentifier());
-          }
           charges.add(charge);
+
+          final Optional<String> optionalName =
+              this.findChargeDefinitionName(productIdentifier, costComponent.getChargeIdentifier());
+          if (optionalName.isPresent()) {
+            charge.setName(optionalName.get());
+          } else {
+            pendingCharges.add(this.remoteCallExecutor.supply(() -> {
+              charge.setName(this.fetchChargeDefinitionName(productIdentifier, costComponent.getChargeIdentifier()));
+              return charge;
+            }));
+          }
         }
       });
+
+      if (!pendingCharges.isEmpty()) {
+        CompletableFuture.allOf(pendingCharges.toArray(new CompletableFuture[pendingCharges.size()])).join();
+      }
+    } catch (final CompletionException cex) {
+      throw ServiceException.internalError(
+          "Could not fetch portfolio information, reason: {0}", cex.getCause() + " - " + cex.getMessage()
+      );
     } catch (final NotFoundException | BadRequestException ex) {
       throw ServiceException.internalError(
           "Could not fetch portfolio information, reason: {0}", ex.getCause() + " - " + ex.getMessage()
@@ -118,4 +146,35 @@ public class PortfolioService {
     accountAssignment.setDesignator(AccountDesignators.ENTRY);
     return Collections.singletonList(accountAssignment);
   }
+
+  private Optional<String> findChargeDefinitionName(final String productIdentifier, final String chargeIdentifier) {
+    final String key = productIdentifier + "::" + chargeIdentifier;
+    final Optional<String> optionalName = this.chargeDefinitionNames.get(key);
+    if (optionalName.isPresent()
+        || this.warmedProducts.get(productIdentifier).isPresent()) {
+      return optionalName;
+    }
+
+    try {
+      this.portfolioManager.getAllChargeDefinitionsForProduct(productIdentifier).forEach(chargeDefinition ->
+          this.chargeDefinitionNames.put(productIdentifier + "::" + chargeDefinition.getIdentifier(),
+              chargeDefinition.getName()));
+      this.warmedProducts.put(productIdentifier, Boolean.TRUE);
+    } catch (final NotFoundException nfex) {
+      this.logger.warn("Charge definitions of product {} not found.", productIdentifier);
+    }
+    return this.chargeDefinitionNames.get(key);
+  }
+
+  private String fetchChargeDefinitionName(final String productIdentifier, final String chargeIdentifier) {
+    try {
+      final ChargeDefinition chargeDefinition =
+          this.portfolioManager.getChargeDefinition(productIdentifier, chargeIdentifier);
+      this.chargeDefinitionNames.put(productIdentifier + "::" + chargeIdentifier, chargeDefinition.getName());
+      return chargeDefinition.getName();
+    } catch (final NotFoundException nfex) {
+      this.logger.warn("Charge {} not found.", chargeIdentifier);
+      return chargeIdentifier;
+    }
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.cn.api.util.UserContext;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.permittedfeignclient.service.ApplicationAccessTokenService;
+import org.apache.fineract.cn.postgresql.config.MetaDataSourceWrapper;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs background work for every tenant provisioned in the meta database, calling other services with an
+ * application access token of the configured user.
+ */
+@Service
+public class ProvisionedTenants {
+
+  private final Logger logger;
+  private final JdbcTemplate metaJdbcTemplate;
+  private final ApplicationAccessTokenService applicationAccessTokenService;
+  private final String user;
+
+  @Autowired
+  public ProvisionedTenants(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                            final MetaDataSourceWrapper metaDataSourceWrapper,
+                            final ApplicationAccessTokenService applicationAccessTokenService,
+                            @Value("${teller.user:imhotep}") final String user) {
+    super();
+    this.logger = logger;
+    this.metaJdbcTemplate = new JdbcTemplate(metaDataSourceWrapper.getMetaDataSource());
+    this.applicationAccessTokenService = applicationAccessTokenService;
+    this.user = user;
+  }
+
+  public void forEach(final Runnable task) {
+    final List<String> tenants;
+    try {
+      tenants = this.metaJdbcTemplate.queryForList("SELECT identifier FROM tenants", String.class);
+    } catch (final DataAccessException daex) {
+      this.logger.warn("Could not read provisioned tenants.", daex);
+      return;
+    }
+    tenants.forEach(tenant -> this.run(tenant, task));
+  }
+
+  /**
+   * Runs the task on the calling thread with tenant context and a fresh application access token set;
+   * a failing task is logged, not thrown.
+   */
+  public void run(final String tenant, final Runnable task) {
+    final Optional<String> previousTenant = TenantContextHolder.identifier();
+    final Optional<UserContext> previousUserContext = UserContextHolder.getUserContext();
+    TenantContextHolder.clear();
+    UserContextHolder.clear();
+    TenantContextHolder.setIdentifier(tenant);
+    try {
+      UserContextHolder.setUserContext(
+          new UserContext(this.user, this.applicationAccessTokenService.getAccessToken(this.user, tenant)));
+      task.run();
+    } catch (final RuntimeException rex) {
+      this.logger.warn("Background task for tenant {} failed.", tenant, rex);
+    } finally {
+      TenantContextHolder.clear();
+      UserContextHolder.clear();
+      previousTenant.ifPresent(TenantContextHolder::setIdentifier);
+      previousUserContext.ifPresent(UserContextHolder::setUserContext);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import org.apache.fineract.cn.accounting.api.v1.domain.Account;
+
+public class ResolvedAccount {
+
+  private final String identifier;
+  private final String alternativeAccountNumber;
+  private final String state;
+
+  public ResolvedAccount(final Account account) {
+    this(account.getIdentifier(), account.getAlternativeAccountNumber(), account.getState());
+  }
+
+  public ResolvedAccount(final String identifier, final String alternativeAccountNumber, final String state) {
+    super();
+    this.identifier = identifier;
+    this.alternativeAccountNumber = alternativeAccountNumber;
+    this.state = state;
+  }
+
+  public String getIdentifier() {
+    return this.identifier;
+  }
+
+  public String getAlternativeAccountNumber() {
+    return this.alternativeAccountNumber;
+  }
+
+  public String getState() {
+    return this.state;
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.service.helper;
+
+import com.google.common.cache.CacheStats;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.cn.teller.ServiceConstants;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerEntity;
+import org.apache.fineract.cn.teller.service.internal.repository.TellerRepository;
+import org.apache.fineract.cn.teller.service.internal.util.TenantScopedCache;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache of detached teller snapshots for the current tenant. Handlers changing a teller load it
+ * from {@link TellerRepository} and {@link #invalidate} it.
+ */
+@Service
+public class TellerCache {
+
+  private final Logger logger;
+  private final TellerRepository tellerRepository;
+  private final TenantScopedCache<TellerEntity> tellers;
+  private final AtomicLong invalidations;
+
+  @Autowired
+  public TellerCache(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                     final TellerRepository tellerRepository,
+                     @Value("${teller.cache.teller.maximumSize:1000}") final long maximumSize,
+                     @Value("${teller.cache.teller.expireAfterWriteInSeconds:300}") final long expireAfterWrite) {
+    super();
+    this.logger = logger;
+    this.tellerRepository = tellerRepository;
+    this.tellers = new TenantScopedCache<>(maximumSize, expireAfterWrite, TimeUnit.SECONDS);
+    this.invalidations = new AtomicLong();
+  }
+
+  public Optional<TellerEntity> find(final String tellerCode) {
+    final Optional<TellerEntity> optionalCachedTeller = this.tellers.get(tellerCode);
+    if (optionalCachedTeller.isPresent()) {
+      return optionalCachedTeller.map(TellerCache::copy);
+    }
+
+    final long invalidationsBeforeLoad = this.invalidations.get();
+    final Optional<TellerEntity> optionalTellerEntity = this.tellerRepository.findByIdentifier(tellerCode);
+    optionalTellerEntity.ifPresent(tellerEntity -> {
+      // a teller changed while loading could be older than the change, don't keep it
+      if (this.invalidations.get() == invalidationsBeforeLoad) {
+        this.tellers.put(tellerCode, TellerCache.copy(tellerEntity));
+      }
+    });
+    return optionalTellerEntity.map(TellerCache::copy);
+  }
+
+  /**
+   * Evicts the teller now and, if called within a transaction, once more after the transaction committed so
+   * readers can not pick up the row as it was before the change.
+   */
+  public void invalidate(final String tellerCode) {
+    this.evict(tellerCode);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(final int status) {
+          TellerCache.this.evict(tellerCode);
+        }
+      });
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${teller.statistics.logIntervalInMillis:300000}",
+      fixedDelayString = "${teller.statistics.logIntervalInMillis:300000}"
+  )
+  public void logStatistics() {
+    final CacheStats cacheStats = this.tellers.stats();
+    if (cacheStats.requestCount() > 0L) {
+      this.logger.info("Teller cache requests: {}, hit rate: {}, evictions: {}, invalidations: {}.",
+          cacheStats.requestCount(), String.format("%.2f", cacheStats.hitRate()), cacheStats.evictionCount(),
+          this.invalidations.get());
+    }
+  }
+
+  private void evict(final String tellerCode) {
+    this.invalidations.incrementAndGet();
+    this.tellers.invalidate(tellerCode);
+    this.logger.debug("Teller {} evicted from cache.", tellerCode);
+  }
+
+  private static TellerEntity copy(final TellerEntity tellerEntity) {
+    final TellerEntity copy = new TellerEntity();
+    copy.setId(tellerEntity.getId());
+    copy.setIdentifier(tellerEntity.getIdentifier());
+    copy.setPassword(tellerEntity.getPassword());
+    copy.setSalt(tellerEntity.getSalt());
+    copy.setOfficeIdentifier(tellerEntity.getOfficeIdentifier());
+    copy.setCashdrawLimit(tellerEntity.getCashdrawLimit());
+    copy.setTellerAccountIdentifier(tellerEntity.getTellerAccountIdentifier());
+    copy.setVaultAccountIdentifier(tellerEntity.getVaultAccountIdentifier());
+    copy.setChequesReceivableAccount(tellerEntity.getChequesReceivableAccount());
+    copy.setCashOverShortAccount(tellerEntity.getCashOverShortAccount());
+    copy.setDenominationRequired(tellerEntity.getDenominationRequired());
+    copy.setAssignedEmployeeIdentifier(tellerEntity.getAssignedEmployeeIdentifier());
+    copy.setState(tellerEntity.getState());
+    copy.setCreatedBy(tellerEntity.getCreatedBy());
+    copy.setCreatedOn(tellerEntity.getCreatedOn());
+    copy.setLastModifiedBy(tellerEntity.getLastModifiedBy());
+    copy.setLastModifiedOn(tellerEntity.getLastModifiedOn());
+    copy.setLastOpenedBy(tellerEntity.getLastOpenedBy());
+    copy.setLastOpenedOn(tellerEntity.getLastOpenedOn());
+    copy.setHashIterationCount(tellerEntity.getHashIterationCount());
+    copy.setHashLength(tellerEntity.getHashLength());
+    copy.setVersion(tellerEntity.getVersion());
+    return copy;
+  }
+}
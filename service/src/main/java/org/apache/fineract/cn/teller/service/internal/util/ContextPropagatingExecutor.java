@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.util;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.fineract.cn.api.util.UserContext;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+
+/**
+ * Bounded executor for fanning out remote calls; the tenant and user context of the
+ * submitting thread is carried over to the worker. If the queue is full the caller runs
+ * the task itself.
+ */
+public class ContextPropagatingExecutor {
+
+  private final ExecutorService executorService;
+  private final ScheduledExecutorService scheduledExecutorService;
+
+  public ContextPropagatingExecutor(final String name, final int poolSize, final int queueCapacity) {
+    super();
+    final AtomicInteger threadCounter = new AtomicInteger(0);
+    final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize,
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+        runnable -> {
+          final Thread thread = new Thread(runnable, name + "-" + threadCounter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    threadPoolExecutor.allowCoreThreadTimeOut(true);
+    this.executorService = threadPoolExecutor;
+
+    final ScheduledThreadPoolExecutor scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(1,
+        runnable -> {
+          final Thread thread = new Thread(runnable, name + "-scheduler");
+          thread.setDaemon(true);
+          return thread;
+        });
+    scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+    this.scheduledExecutorService = scheduledThreadPoolExecutor;
+  }
+
+  public <T> CompletableFuture<T> supply(final Supplier<T> supplier) {
+    final Optional<String> tenant = TenantContextHolder.identifier();
+    final Optional<UserContext> userContext = UserContextHolder.getUserContext();
+    return CompletableFuture.supplyAsync(() -> {
+      final Optional<String> previousTenant = TenantContextHolder.identifier();
+      final Optional<UserContext> previousUserContext = UserContextHolder.getUserContext();
+      TenantContextHolder.clear();
+      UserContextHolder.clear();
+      tenant.ifPresent(TenantContextHolder::setIdentifier);
+      userContext.ifPresent(UserContextHolder::setUserContext);
+      try {
+        return supplier.get();
+      } finally {
+        TenantContextHolder.clear();
+        UserContextHolder.clear();
+        previousTenant.ifPresent(TenantContextHolder::setIdentifier);
+        previousUserContext.ifPresent(UserContextHolder::setUserContext);
+      }
+    }, this.executorService);
+  }
+
+  public CompletableFuture<Void> run(final Runnable runnable) {
+    return this.supply(() -> {
+      runnable.run();
+      return null;
+    });
+  }
+
+  /**
+   * Runs the task on the pool once the delay has passed, with the context the caller has now.
+   */
+  public void schedule(final Runnable runnable, final long delay, final TimeUnit timeUnit) {
+    final Optional<String> tenant = TenantContextHolder.identifier();
+    final Optional<UserContext> userContext = UserContextHolder.getUserContext();
+    this.scheduledExecutorService.schedule(() -> {
+      tenant.ifPresent(TenantContextHolder::setIdentifier);
+      userContext.ifPresent(UserContextHolder::setUserContext);
+      try {
+        this.run(runnable);
+      } finally {
+        TenantContextHolder.clear();
+        UserContextHolder.clear();
+      }
+    }, delay, timeUnit);
+  }
+
+  public void shutdown() {
+    this.scheduledExecutorService.shutdownNow();
+    this.executorService.shutdown();
+  }
+}
@@ -23,6 +23,31 @@ import org.apache.fineract.cn.teller.api.v1.domain.MICR;
 public class MICRParser {
   private static final String DELIMITER = "~";
 
+  private static final int MAXIMUM_CHEQUE_NUMBER_LENGTH = 8;
+  private static final int MAXIMUM_BRANCH_SORT_CODE_LENGTH = 11;
+  private static final int MAXIMUM_ACCOUNT_NUMBER_LENGTH = 34;
+
+  private static final int DIGIT = 0;
+  private static final int SEPARATOR = 1;
+  private static final int TRANSIT = 2;
+  private static final int ON_US = 3;
+  private static final int AMOUNT = 4;
+  private static final int CONTROL = 5;
+  private static final int INVALID = 6;
+
+  private static final int UNKNOWN_FORMAT = 0;
+  private static final int E13B_FORMAT = 1;
+  private static final int CMC7_FORMAT = 2;
+
+  private static final int FIELDS = 4;
+  private static final int E13B_AUXILIARY_ON_US = 0;
+  private static final int E13B_TRANSIT = 1;
+  private static final int E13B_ACCOUNT_NUMBER = 2;
+  private static final int E13B_ON_US = 3;
+  private static final int CMC7_CHEQUE_NUMBER = 0;
+  private static final int CMC7_BRANCH_SORT_CODE = 1;
+  private static final int CMC7_ACCOUNT_NUMBER = 2;
+
   private MICRParser() {
     super();
   }
@@ -41,4 +66,171 @@ public class MICRParser {
         + MICRParser.DELIMITER
         + micr.getAccountNumber();
   }
+
+  /**
+   * Parses a raw MICR line as exported by cheque scanners.
+   *
+   * <p>E-13B lines carry the routing number between two transit symbols, the account number in the on-us field
+   * following it, and the cheque number either in the auxiliary on-us field in front of the routing number or
+   * after the account number's on-us symbol. Transit is given as {@code ⑆}, {@code T} or {@code t}, on-us as
+   * {@code ⑈}, {@code U}, {@code u}, {@code O} or {@code o}, amount as {@code ⑇}, {@code $} or {@code a}, and dash
+   * as {@code ⑉}, {@code -} or {@code d}; an amount field is ignored.</p>
+   *
+   * <p>Lines without transit symbol are read as CMC-7, the cheque number, branch sort code and account number
+   * being the first three digit groups separated by any of the control symbols {@code <}, {@code >}, {@code :},
+   * {@code =} and {@code #}.</p>
+   *
+   * <p>The line is read once from left to right; the first transit or control symbol decides the format.</p>
+   */
+  public static MICR parse(final String micrLine) {
+    if (micrLine == null || micrLine.isEmpty()) {
+      throw new IllegalArgumentException("MICR line must be given.");
+    }
+
+    // digits of all fields in order of appearance, each field being a range of the buffer
+    final char[] buffer = new char[micrLine.length()];
+    final int[] fieldStarts = new int[FIELDS];
+    final int[] fieldEnds = new int[FIELDS];
+    int format = UNKNOWN_FORMAT;
+    int field = 0;
+    int count = 0;
+
+    scan:
+    for (int i = 0; i < micrLine.length(); i++) {
+      final char c = micrLine.charAt(i);
+      switch (MICRParser.classify(c)) {
+        case DIGIT:
+          buffer[count++] = c;
+          fieldEnds[field] = count;
+          break;
+        case SEPARATOR:
+          break;
+        case ON_US:
+          if (format == E13B_FORMAT && field == E13B_ACCOUNT_NUMBER) {
+            field = MICRParser.nextField(field, count, fieldStarts, fieldEnds);
+          }
+          break;
+        case TRANSIT:
+          if (format == CMC7_FORMAT || field >= E13B_ACCOUNT_NUMBER) {
+            throw MICRParser.unexpected(c, i);
+          }
+          format = E13B_FORMAT;
+          field = MICRParser.nextField(field, count, fieldStarts, fieldEnds);
+          break;
+        case AMOUNT:
+          if (format != E13B_FORMAT || field < E13B_ACCOUNT_NUMBER) {
+            throw MICRParser.unexpected(c, i);
+          }
+          break scan;
+        case CONTROL:
+          if (format == E13B_FORMAT) {
+            throw MICRParser.unexpected(c, i);
+          }
+          format = CMC7_FORMAT;
+          if (fieldEnds[field] > fieldStarts[field]) {
+            if (field == CMC7_ACCOUNT_NUMBER) {
+              break scan;
+            }
+            field = MICRParser.nextField(field, count, fieldStarts, fieldEnds);
+          } else {
+            fieldStarts[field] = count;
+            fieldEnds[field] = count;
+          }
+          break;
+        default:
+          throw MICRParser.unexpected(c, i);
+      }
+    }
+
+    final MICR micr;
+    if (format == E13B_FORMAT) {
+      if (field < E13B_ACCOUNT_NUMBER) {
+        throw new IllegalArgumentException("MICR line has no complete transit field.");
+      }
+      final String auxiliaryOnUs = MICRParser.field(buffer, fieldStarts, fieldEnds, E13B_AUXILIARY_ON_US);
+      micr = MICRParser.micr(
+          auxiliaryOnUs != null ? auxiliaryOnUs : MICRParser.field(buffer, fieldStarts, fieldEnds, E13B_ON_US),
+          MICRParser.field(buffer, fieldStarts, fieldEnds, E13B_TRANSIT),
+          MICRParser.field(buffer, fieldStarts, fieldEnds, E13B_ACCOUNT_NUMBER));
+    } else {
+      micr = MICRParser.micr(
+          MICRParser.field(buffer, fieldStarts, fieldEnds, CMC7_CHEQUE_NUMBER),
+          MICRParser.field(buffer, fieldStarts, fieldEnds, CMC7_BRANCH_SORT_CODE),
+          MICRParser.field(buffer, fieldStarts, fieldEnds, CMC7_ACCOUNT_NUMBER));
+    }
+
+    MICRParser.checkLength("cheque number", micr.getChequeNumber(), MAXIMUM_CHEQUE_NUMBER_LENGTH);
+    MICRParser.checkLength("branch sort code", micr.getBranchSortCode(), MAXIMUM_BRANCH_SORT_CODE_LENGTH);
+    MICRParser.checkLength("account number", micr.getAccountNumber(), MAXIMUM_ACCOUNT_NUMBER_LENGTH);
+    return micr;
+  }
+
+  private static int nextField(final int field, final int count, final int[] fieldStarts, final int[] fieldEnds) {
+    fieldStarts[field + 1] = count;
+    fieldEnds[field + 1] = count;
+    return field + 1;
+  }
+
+  private static String field(final char[] buffer, final int[] fieldStarts, final int[] fieldEnds, final int field) {
+    final int length = fieldEnds[field] - fieldStarts[field];
+    return length > 0 ? new String(buffer, fieldStarts[field], length) : null;
+  }
+
+  private static IllegalArgumentException unexpected(final char c, final int index) {
+    return new IllegalArgumentException("MICR line has unexpected character '" + c + "' at " + index + ".");
+  }
+
+  private static MICR micr(final String chequeNumber, final String branchSortCode, final String accountNumber) {
+    if (chequeNumber == null || branchSortCode == null || accountNumber == null) {
+      throw new IllegalArgumentException("MICR line lacks cheque number, branch sort code or account number.");
+    }
+
+    final MICR micr = new MICR();
+    micr.setChequeNumber(chequeNumber);
+    micr.setBranchSortCode(branchSortCode);
+    micr.setAccountNumber(accountNumber);
+    return micr;
+  }
+
+  private static int classify(final char c) {
+    if (c >= '0' && c <= '9') {
+      return DIGIT;
+    }
+
+    switch (c) {
+      case ' ':
+      case '-':
+      case 'd':
+      case '\u2449':
+        return SEPARATOR;
+      case 'T':
+      case 't':
+      case '\u2446':
+        return TRANSIT;
+      case 'U':
+      case 'u':
+      case 'O':
+      case 'o':
+      case '\u2448':
+        return ON_US;
+      case '$':
+      case 'a':
+      case '\u2447':
+        return AMOUNT;
+      case '<':
+      case '>':
+      case ':':
+      case '=':
+      case '#':
+        return CONTROL;
+      default:
+        return INVALID;
+    }
+  }
+
+  private static void checkLength(final String name, final String value, final int maximumLength) {
+    if (value.length() > maximumLength) {
+      throw new IllegalArgumentException("MICR " + name + " exceeds " + maximumLength + " digits.");
+    }
+  }
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.util;
+
+import feign.FeignException;
+import org.apache.fineract.cn.api.util.NotFoundException;
+
+public class RemoteCallFailures {
+
+  private RemoteCallFailures() {
+    super();
+  }
+
+  /**
+   * Bad requests and unknown resources come back the same however often they are sent,
+   * e.g. a cheque that is not covered, already used or invalid. Timeouts, throttling,
+   * expired tokens and server errors are worth another attempt.
+   */
+  public static boolean isRejection(final RuntimeException cause) {
+    if (cause instanceof IllegalArgumentException || cause instanceof NotFoundException) {
+      return true;
+    }
+    if (cause instanceof FeignException) {
+      final int status = ((FeignException) cause).status();
+      return status >= 400 && status < 500 && status != 401 && status != 403 && status != 408 && status != 429;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.teller.service.internal.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+
+public class TenantScopedCache<V> {
+
+  private static final String KEY_DELIMITER = "::";
+
+  private final Cache<String, V> cache;
+
+  public TenantScopedCache(final long maximumSize, final long expireAfterWrite, final TimeUnit timeUnit) {
+    super();
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite, timeUnit)
+        .recordStats()
+        .build();
+  }
+
+  public Optional<V> get(final String key) {
+    return Optional.ofNullable(this.cache.getIfPresent(TenantScopedCache.tenantKey(key)));
+  }
+
+  public void put(final String key, final V value) {
+    if (key != null && value != null) {
+      this.cache.put(TenantScopedCache.tenantKey(key), value);
+    }
+  }
+
+  public void invalidate(final String key) {
+    if (key != null) {
+      this.cache.invalidate(TenantScopedCache.tenantKey(key));
+    }
+  }
+
+  public void invalidateAll() {
+    final String tenantPrefix = TenantScopedCache.tenantKey("");
+    this.cache.asMap().keySet().removeIf(key -> key.startsWith(tenantPrefix));
+  }
+
+  public CacheStats stats() {
+    return this.cache.stats();
+  }
+
+  private static String tenantKey(final String key) {
+    return TenantContextHolder.checkedGetIdentifier() + KEY_DELIMITER + key;
+  }
+}
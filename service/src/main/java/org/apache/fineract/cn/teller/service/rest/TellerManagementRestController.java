@@ -22,22 +22,46 @@ import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.PermittableGroupIds;
 import org.apache.fineract.cn.teller.api.v1.domain.Teller;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerBalanceSheet;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerDenomination;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerManagementCommand;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerOutcome;
 import org.apache.fineract.cn.teller.service.internal.command.ChangeTellerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.CloseTellerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.CreateTellerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.DeleteTellerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.OpenTellerCommand;
+import org.apache.fineract.cn.teller.service.internal.command.PostTellerBatchCommand;
 import org.apache.fineract.cn.teller.service.internal.command.TellerDenominationCommand;
 import org.apache.fineract.cn.teller.service.internal.service.TellerManagementService;
-import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
+import org.apache.fineract.cn.teller.service.internal.service.TellerPasswordService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountCache;
 import org.apache.fineract.cn.teller.service.internal.service.helper.OrganizationService;
+import org.apache.fineract.cn.teller.service.internal.util.ContextPropagatingExecutor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
@@ -48,6 +72,7 @@ import org.apache.fineract.cn.lang.ServiceException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -62,24 +87,35 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/offices/{officeIdentifier}/teller")
 public class TellerManagementRestController {
 
+  private static final int MAXIMUM_BATCH_SIZE = 500;
+
   private final Logger logger;
   private final CommandGateway commandGateway;
   private final TellerManagementService tellerManagementService;
   private final OrganizationService organizationService;
-  private final AccountingService accountingService;
+  private final AccountCache accountCache;
+  private final ObjectMapper objectMapper;
+  private final ContextPropagatingExecutor remoteCallExecutor;
+  private final TellerPasswordService tellerPasswordService;
 
   @Autowired
   public TellerManagementRestController(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                                         final CommandGateway commandGateway,
                                         final TellerManagementService tellerManagementService,
                                         final OrganizationService organizationService,
-                                        final AccountingService accountingService) {
+                                        final AccountCache accountCache,
+                                        final ObjectMapper objectMapper,
+                                        final ContextPropagatingExecutor remoteCallExecutor,
+                                        final TellerPasswordService tellerPasswordService) {
     super();
     this.logger = logger;
     this.commandGateway = commandGateway;
     this.tellerManagementService = tellerManagementService;
     this.organizationService = organizationService;
-    this.accountingService = accountingService;
+    this.accountCache = accountCache;
+    this.objectMapper = objectMapper;
+    this.remoteCallExecutor = remoteCallExecutor;
+    this.tellerPasswordService = tellerPasswordService;
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_MANAGEMENT)
@@ -107,6 +143,97 @@ public class TellerManagementRestController {
     return ResponseEntity.accepted().build();
   }
 
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_MANAGEMENT)
+  @RequestMapping(
+      value = "/batch",
+      method = RequestMethod.POST,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseBody
+  ResponseEntity<TellerBatchResult> post(@PathVariable("officeIdentifier") final String officeIdentifier,
+                                         @RequestBody @Valid final TellerBatch tellerBatch) {
+    final List<Teller> tellers = tellerBatch.getTellers();
+    if (tellers.isEmpty() || tellers.size() > MAXIMUM_BATCH_SIZE) {
+      throw ServiceException.badRequest("Batch size must be between 1 and {0}.", MAXIMUM_BATCH_SIZE);
+    }
+
+    this.verifyOffice(officeIdentifier);
+
+    final LinkedHashMap<String, CompletableFuture<Boolean>> accountChecks = new LinkedHashMap<>();
+    tellers.forEach(teller -> Stream.of(teller.getTellerAccountIdentifier(), teller.getVaultAccountIdentifier(),
+        teller.getChequesReceivableAccount(), teller.getCashOverShortAccount())
+        .filter(Objects::nonNull)
+        .forEach(accountIdentifier -> accountChecks.computeIfAbsent(accountIdentifier, identifier ->
+            this.remoteCallExecutor.supply(() -> this.accountCache.find(identifier).isPresent()))));
+    final Set<String> missingAccounts;
+    try {
+      missingAccounts = accountChecks.entrySet().stream()
+          .filter(accountCheck -> !accountCheck.getValue().join())
+          .map(Map.Entry::getKey)
+          .collect(Collectors.toSet());
+    } catch (final CompletionException cex) {
+      throw ServiceException.internalError("Could not verify teller accounts: {0}", String.valueOf(cex.getCause()));
+    }
+
+    final TellerOutcome[] outcomes = new TellerOutcome[tellers.size()];
+    final ArrayList<Teller> acceptedTellers = new ArrayList<>(tellers.size());
+    final ArrayList<Integer> acceptedIndexes = new ArrayList<>(tellers.size());
+    final HashSet<String> batchedTellers = new HashSet<>();
+    for (int i = 0; i < tellers.size(); i++) {
+      final Teller teller = tellers.get(i);
+      final Optional<String> missingAccount = Stream.of(teller.getTellerAccountIdentifier(),
+          teller.getVaultAccountIdentifier(), teller.getChequesReceivableAccount(), teller.getCashOverShortAccount())
+          .filter(missingAccounts::contains)
+          .findFirst();
+
+      final String rejection;
+      if (!batchedTellers.add(teller.getCode())) {
+        rejection = "Teller " + teller.getCode() + " given twice in batch.";
+      } else if (missingAccount.isPresent()) {
+        rejection = "Account " + missingAccount.get() + " not found.";
+      } else {
+        rejection = null;
+      }
+
+      if (rejection != null) {
+        final TellerOutcome rejectedOutcome = new TellerOutcome();
+        rejectedOutcome.setIndex(i);
+        rejectedOutcome.setCode(teller.getCode());
+        rejectedOutcome.setOutcome(TellerOutcome.Outcome.REJECTED.name());
+        rejectedOutcome.setMessage(rejection);
+        outcomes[i] = rejectedOutcome;
+      } else {
+        acceptedTellers.add(teller);
+        acceptedIndexes.add(i);
+      }
+    }
+
+    if (!acceptedTellers.isEmpty()) {
+      // derived up front, the command handler's transaction must not wait for key derivation
+      final HashMap<String, String> passwords = new HashMap<>();
+      acceptedTellers.stream()
+          .filter(teller -> teller.getPassword() != null)
+          .forEach(teller -> passwords.put(teller.getCode(), teller.getPassword()));
+      final Map<String, TellerPasswordService.PasswordHash> passwordHashes =
+          this.tellerPasswordService.derivePasswords(passwords);
+
+      try {
+        this.commandGateway.process(
+            new PostTellerBatchCommand(officeIdentifier, acceptedTellers, acceptedIndexes, passwordHashes),
+            TellerBatchResult.class).get()
+            .getOutcomes()
+            .forEach(tellerOutcome -> outcomes[tellerOutcome.getIndex()] = tellerOutcome);
+      } catch (final Exception e) {
+        throw ServiceException.badRequest("Teller batch for office {0} not valid.", officeIdentifier);
+      }
+    }
+
+    final TellerBatchResult tellerBatchResult = new TellerBatchResult();
+    tellerBatchResult.setOutcomes(Arrays.asList(outcomes));
+    return ResponseEntity.ok(tellerBatchResult);
+  }
+
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_MANAGEMENT)
   @RequestMapping(
       value = "/{tellerCode}",
@@ -228,6 +355,65 @@ public class TellerManagementRestController {
     return ResponseEntity.ok(this.tellerManagementService.getBalance(tellerCode));
   }
 
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_MANAGEMENT)
+  @RequestMapping(
+      value = "/{tellerCode}/balance/totals",
+      method = RequestMethod.GET,
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseBody
+  ResponseEntity<TellerBalanceSheet> getBalanceTotals(@PathVariable("officeIdentifier") final String officeIdentifier,
+                                                      @PathVariable("tellerCode") final String tellerCode) {
+    this.verifyOffice(officeIdentifier);
+    this.verifyTeller(tellerCode);
+
+    return ResponseEntity.ok(this.tellerManagementService.getBalanceTotals(tellerCode));
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_MANAGEMENT)
+  @RequestMapping(
+      value = "/{tellerCode}/balance/entries",
+      method = RequestMethod.GET,
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public void streamBalanceEntries(@PathVariable("officeIdentifier") final String officeIdentifier,
+                                   @PathVariable("tellerCode") final String tellerCode,
+                                   final HttpServletResponse response) throws IOException {
+    this.verifyOffice(officeIdentifier);
+    this.verifyTeller(tellerCode);
+
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+
+    // no content length is set, entries go out chunked while further ledger pages are fetched; nothing is
+    // committed before the generator's buffer fills, so a failing first page still ends in an error status
+    final JsonGenerator jsonGenerator = this.objectMapper.getFactory().createGenerator(response.getOutputStream());
+    // a failure halfway must not leave the client with a well formed, but truncated array
+    jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    try {
+      jsonGenerator.writeStartArray();
+      this.tellerManagementService.streamBalanceEntries(tellerCode, tellerEntry -> {
+        try {
+          jsonGenerator.writeObject(tellerEntry);
+        } catch (final IOException ioex) {
+          throw new UncheckedIOException(ioex);
+        }
+      });
+      jsonGenerator.writeEndArray();
+      jsonGenerator.close();
+    } catch (final UncheckedIOException uioex) {
+      this.logger.warn("Could not stream balance entries of teller {}.", tellerCode, uioex.getCause());
+    } catch (final RuntimeException rex) {
+      if (response.isCommitted()) {
+        // the container drops the connection instead of ending the chunked body
+        this.logger.warn("Aborted streaming balance entries of teller {}.", tellerCode, rex);
+      }
+      throw rex;
+    }
+  }
+
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_MANAGEMENT)
   @RequestMapping(
       value = "/{tellerCode}",
@@ -274,10 +460,10 @@ public class TellerManagementRestController {
 
     this.verifyAccount(teller.getCashOverShortAccount());
 
-    final TellerBalanceSheet tellerBalanceSheet = this.tellerManagementService.getBalance(tellerCode);
+    final BigDecimal cashOnHand = this.tellerManagementService.getCashOnHand(tellerCode);
 
     this.commandGateway.process(
-        new TellerDenominationCommand(tellerCode, tellerBalanceSheet.getCashOnHand(), tellerDenomination));
+        new TellerDenominationCommand(tellerCode, cashOnHand, tellerDenomination));
 
     return ResponseEntity.accepted().build();
   }
@@ -312,7 +498,7 @@ public class TellerManagementRestController {
   }
 
   private void verifyAccount(final String accountIdentifier) {
-    if (!this.accountingService.findAccount(accountIdentifier).isPresent()) {
+    if (!this.accountCache.find(accountIdentifier).isPresent()) {
       throw ServiceException.badRequest("Account {0} not found.", accountIdentifier);
     }
   }
@@ -20,28 +20,52 @@ package org.apache.fineract.cn.teller.service.rest;
 
 import org.apache.fineract.cn.teller.ServiceConstants;
 import org.apache.fineract.cn.teller.api.v1.PermittableGroupIds;
+import org.apache.fineract.cn.teller.api.v1.domain.Cheque;
+import org.apache.fineract.cn.teller.api.v1.domain.ChequeBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.ChequeBatchEntry;
 import org.apache.fineract.cn.teller.api.v1.domain.MICR;
 import org.apache.fineract.cn.teller.api.v1.domain.Teller;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransaction;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionBatch;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionBatchResult;
 import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionCosts;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionOutcome;
+import org.apache.fineract.cn.teller.api.v1.domain.TellerTransactionPage;
 import org.apache.fineract.cn.teller.api.v1.domain.UnlockDrawerCommand;
 import org.apache.fineract.cn.teller.service.internal.command.CancelTellerTransactionCommand;
 import org.apache.fineract.cn.teller.service.internal.command.ConfirmTellerTransactionCommand;
 import org.apache.fineract.cn.teller.service.internal.command.DrawerUnlockCommand;
 import org.apache.fineract.cn.teller.service.internal.command.InitializeTellerTransactionCommand;
 import org.apache.fineract.cn.teller.service.internal.command.PauseTellerCommand;
+import org.apache.fineract.cn.teller.service.internal.command.PostTellerTransactionBatchCommand;
+import org.apache.fineract.cn.teller.service.internal.processor.TellerTransactionOutbox;
 import org.apache.fineract.cn.teller.service.internal.processor.TellerTransactionProcessor;
 import org.apache.fineract.cn.teller.service.internal.service.TellerManagementService;
 import org.apache.fineract.cn.teller.service.internal.service.TellerOperationService;
+import org.apache.fineract.cn.teller.service.internal.service.TellerPasswordService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.AccountCache;
 import org.apache.fineract.cn.teller.service.internal.service.helper.AccountingService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.ChequeRegistry;
 import org.apache.fineract.cn.teller.service.internal.service.helper.ChequeService;
 import org.apache.fineract.cn.teller.service.internal.service.helper.DepositAccountManagementService;
 import org.apache.fineract.cn.teller.service.internal.service.helper.OrganizationService;
+import org.apache.fineract.cn.teller.service.internal.service.helper.ResolvedAccount;
+import org.apache.fineract.cn.teller.service.internal.service.helper.TellerCache;
+import org.apache.fineract.cn.teller.service.internal.util.ContextPropagatingExecutor;
 import org.apache.fineract.cn.teller.service.internal.util.MICRParser;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.validation.Valid;
 import org.apache.fineract.cn.accounting.api.v1.domain.Account;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
@@ -50,6 +74,7 @@ import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
 import org.apache.fineract.cn.deposit.api.v1.definition.domain.ProductDefinition;
 import org.apache.fineract.cn.lang.DateConverter;
+import org.apache.fineract.cn.lang.DateRange;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -68,15 +93,25 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/teller/{tellerCode}")
 public class TellerOperationRestController {
 
+  private static final int MAXIMUM_PAGE_SIZE = 500;
+  private static final int MAXIMUM_BATCH_SIZE = 100;
+  private static final int MAXIMUM_CHEQUE_BATCH_SIZE = 1000;
+
   private final Logger logger;
   private final CommandGateway commandGateway;
   private final TellerOperationService tellerOperationService;
   private final TellerManagementService tellerManagementService;
   private final AccountingService accountingService;
+  private final AccountCache accountCache;
   private final ChequeService chequeService;
+  private final ChequeRegistry chequeRegistry;
   private final TellerTransactionProcessor tellerTransactionProcessor;
   private final OrganizationService organizationService;
   private final DepositAccountManagementService depositAccountManagementService;
+  private final ContextPropagatingExecutor remoteCallExecutor;
+  private final TellerCache tellerCache;
+  private final TellerPasswordService tellerPasswordService;
+  private final TellerTransactionOutbox tellerTransactionOutbox;
 
   @Autowired
   public TellerOperationRestController(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
@@ -84,19 +119,31 @@ public class TellerOperationRestController {
                                        final TellerOperationService tellerOperationService,
                                        final TellerManagementService tellerManagementService,
                                        final AccountingService accountingService,
+                                       final AccountCache accountCache,
                                        final ChequeService chequeService,
+                                       final ChequeRegistry chequeRegistry,
                                        final TellerTransactionProcessor tellerTransactionProcessor,
                                        final OrganizationService organizationService,
-                                       final DepositAccountManagementService depositAccountManagementService) {
+                                       final DepositAccountManagementService depositAccountManagementService,
+                                       final ContextPropagatingExecutor remoteCallExecutor,
+                                       final TellerCache tellerCache,
+                                       final TellerPasswordService tellerPasswordService,
+                                       final TellerTransactionOutbox tellerTransactionOutbox) {
     this.logger = logger;
     this.commandGateway = commandGateway;
     this.tellerOperationService = tellerOperationService;
     this.tellerManagementService = tellerManagementService;
     this.accountingService = accountingService;
+    this.accountCache = accountCache;
     this.chequeService = chequeService;
+    this.chequeRegistry = chequeRegistry;
     this.tellerTransactionProcessor = tellerTransactionProcessor;
     this.organizationService = organizationService;
     this.depositAccountManagementService = depositAccountManagementService;
+    this.remoteCallExecutor = remoteCallExecutor;
+    this.tellerCache = tellerCache;
+    this.tellerPasswordService = tellerPasswordService;
+    this.tellerTransactionOutbox = tellerTransactionOutbox;
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_OPERATION)
@@ -121,6 +168,14 @@ public class TellerOperationRestController {
 
     this.verifyEmployee(teller);
 
+    // derive the password hash before the command's transaction starts, the handler will find the unlock token
+    final boolean passwordValid = this.tellerCache.find(tellerCode)
+        .map(tellerEntity -> this.tellerPasswordService.verify(tellerEntity, unlockDrawerCommand.getPassword()).isValid())
+        .orElse(Boolean.FALSE);
+    if (!passwordValid) {
+      throw ServiceException.notFound("Teller {0} not found.", teller.getCode());
+    }
+
     try {
       final String unlockedTeller =
           this.commandGateway.process(new DrawerUnlockCommand(tellerCode, unlockDrawerCommand), String.class).get();
@@ -179,8 +234,7 @@ public class TellerOperationRestController {
     }
 
     this.verifyEmployee(teller);
-    this.verifyAccounts(tellerTransaction);
-    this.verifyTellerTransaction(teller, tellerTransaction);
+    this.verifyTellerTransactionConcurrently(teller, tellerTransaction);
 
     try {
       return ResponseEntity.ok(
@@ -192,6 +246,203 @@ public class TellerOperationRestController {
     }
   }
 
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_OPERATION)
+  @RequestMapping(
+      value = "/transactions/batch",
+      method = RequestMethod.POST,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseBody
+  ResponseEntity<TellerTransactionBatchResult> post(@PathVariable("tellerCode") final String tellerCode,
+                                                    @RequestBody @Valid final TellerTransactionBatch tellerTransactionBatch) {
+    final List<TellerTransaction> tellerTransactions = tellerTransactionBatch.getTellerTransactions();
+    if (tellerTransactions.isEmpty() || tellerTransactions.size() > MAXIMUM_BATCH_SIZE) {
+      throw ServiceException.badRequest("Batch size must be between 1 and {0}.", MAXIMUM_BATCH_SIZE);
+    }
+
+    final Teller teller = this.verifyTeller(tellerCode);
+
+    if (!teller.getState().equals(Teller.State.ACTIVE.name())) {
+      throw ServiceException.conflict("Teller {0} is not active.", tellerCode);
+    }
+
+    this.verifyEmployee(teller);
+
+    return ResponseEntity.ok(
+        this.postBatch(tellerCode, teller, tellerTransactions,
+            new TellerTransactionOutcome[tellerTransactions.size()],
+            Boolean.TRUE.equals(tellerTransactionBatch.getConfirm()),
+            Boolean.TRUE.equals(tellerTransactionBatch.getChargesIncluded()))
+    );
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_OPERATION)
+  @RequestMapping(
+      value = "/cheques/batch",
+      method = RequestMethod.POST,
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseBody
+  ResponseEntity<TellerTransactionBatchResult> post(@PathVariable("tellerCode") final String tellerCode,
+                                                    @RequestBody @Valid final ChequeBatch chequeBatch) {
+    final List<ChequeBatchEntry> chequeBatchEntries = chequeBatch.getCheques();
+    if (chequeBatchEntries.isEmpty() || chequeBatchEntries.size() > MAXIMUM_CHEQUE_BATCH_SIZE) {
+      throw ServiceException.badRequest("Batch size must be between 1 and {0}.", MAXIMUM_CHEQUE_BATCH_SIZE);
+    }
+
+    final Teller teller = this.verifyTeller(tellerCode);
+
+    if (!teller.getState().equals(Teller.State.ACTIVE.name())) {
+      throw ServiceException.conflict("Teller {0} is not active.", tellerCode);
+    }
+
+    this.verifyEmployee(teller);
+
+    final TellerTransactionOutcome[] outcomes = new TellerTransactionOutcome[chequeBatchEntries.size()];
+    final MICR[] micrs = new MICR[chequeBatchEntries.size()];
+    for (int i = 0; i < chequeBatchEntries.size(); i++) {
+      try {
+        micrs[i] = MICRParser.parse(chequeBatchEntries.get(i).getMicrLine());
+      } catch (final IllegalArgumentException iaex) {
+        outcomes[i] = TellerOperationRestController.rejected(i, iaex.getMessage());
+      }
+    }
+
+    final String transactionDate = DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC()));
+    final ArrayList<TellerTransaction> tellerTransactions = new ArrayList<>(chequeBatchEntries.size());
+    for (int i = 0; i < chequeBatchEntries.size(); i++) {
+      tellerTransactions.add(outcomes[i] == null
+          ? TellerOperationRestController.chequeTransaction(chequeBatchEntries.get(i), micrs[i], transactionDate)
+          : null);
+    }
+
+    return ResponseEntity.ok(
+        this.postBatch(tellerCode, teller, tellerTransactions, outcomes,
+            Boolean.TRUE.equals(chequeBatch.getConfirm()),
+            Boolean.TRUE.equals(chequeBatch.getChargesIncluded()))
+    );
+  }
+
+  private TellerTransactionBatchResult postBatch(final String tellerCode,
+                                                 final Teller teller,
+                                                 final List<TellerTransaction> tellerTransactions,
+                                                 final TellerTransactionOutcome[] outcomes,
+                                                 final boolean confirm,
+                                                 final boolean chargesIncluded) {
+    final ArrayList<TellerTransaction> acceptedTellerTransactions = new ArrayList<>(tellerTransactions.size());
+    final ArrayList<Integer> acceptedIndexes = new ArrayList<>(tellerTransactions.size());
+    final ArrayList<TellerTransactionCosts> acceptedCosts = new ArrayList<>(tellerTransactions.size());
+    final HashSet<String> verifiedAccounts = new HashSet<>();
+    final BatchLookups batchLookups = new BatchLookups();
+    final HashSet<String> batchedCheques = new HashSet<>();
+    this.rejectUsedCheques(tellerTransactions, outcomes);
+    for (int i = 0; i < tellerTransactions.size(); i++) {
+      if (outcomes[i] != null) {
+        continue;
+      }
+      final TellerTransaction tellerTransaction = tellerTransactions.get(i);
+      try {
+        if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)
+            && !batchedCheques.add(MICRParser.toIdentifier(tellerTransaction.getCheque().getMicr()))) {
+          throw ServiceException.conflict("Cheque {0} used twice in batch.",
+              MICRParser.toIdentifier(tellerTransaction.getCheque().getMicr()));
+        }
+
+        this.verifyAccounts(tellerTransaction, verifiedAccounts, batchLookups);
+        this.verifyTellerTransaction(teller, tellerTransaction, batchLookups);
+        TellerTransactionCosts tellerTransactionCosts = null;
+        if (confirm) {
+          // quoted once here and handed on, the aggregate does not quote again
+          tellerTransactionCosts = this.tellerTransactionProcessor.getCosts(tellerTransaction);
+          this.verifyDepositTransaction(tellerTransaction, chargesIncluded, tellerTransactionCosts, batchLookups);
+          this.verifyWithdrawalTransaction(tellerTransaction, chargesIncluded, tellerTransactionCosts, batchLookups);
+        }
+        acceptedTellerTransactions.add(tellerTransaction);
+        acceptedIndexes.add(i);
+        acceptedCosts.add(tellerTransactionCosts);
+      } catch (final ServiceException sex) {
+        outcomes[i] = TellerOperationRestController.rejected(i, sex.getMessage());
+      }
+    }
+
+    if (!acceptedTellerTransactions.isEmpty()) {
+      try {
+        this.commandGateway.process(
+            new PostTellerTransactionBatchCommand(tellerCode, acceptedTellerTransactions, acceptedIndexes,
+                acceptedCosts, confirm, chargesIncluded), TellerTransactionBatchResult.class).get()
+            .getOutcomes()
+            .forEach(tellerTransactionOutcome -> outcomes[tellerTransactionOutcome.getIndex()] = tellerTransactionOutcome);
+      } catch (final Exception e) {
+        throw ServiceException.badRequest("Transaction batch for teller {0} not valid.", tellerCode);
+      }
+    }
+
+    final TellerTransactionBatchResult tellerTransactionBatchResult = new TellerTransactionBatchResult();
+    tellerTransactionBatchResult.setOutcomes(Arrays.asList(outcomes));
+    return tellerTransactionBatchResult;
+  }
+
+  /**
+   * Looks up all cheques of the batch in the registry at once; cheques found there are rejected and need not
+   * be looked up one by one.
+   */
+  private void rejectUsedCheques(final List<TellerTransaction> tellerTransactions,
+                                 final TellerTransactionOutcome[] outcomes) {
+    final List<MICR> micrs = new ArrayList<>(tellerTransactions.size());
+    for (int i = 0; i < tellerTransactions.size(); i++) {
+      if (outcomes[i] == null && tellerTransactions.get(i).getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
+        micrs.add(tellerTransactions.get(i).getCheque().getMicr());
+      }
+    }
+    if (micrs.isEmpty()) {
+      return;
+    }
+
+    final Set<String> usedCheques = this.chequeRegistry.findUsed(micrs);
+    for (int i = 0; i < tellerTransactions.size(); i++) {
+      if (outcomes[i] == null && tellerTransactions.get(i).getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
+        final String chequeIdentifier = MICRParser.toIdentifier(tellerTransactions.get(i).getCheque().getMicr());
+        if (usedCheques.contains(chequeIdentifier)) {
+          outcomes[i] = TellerOperationRestController.rejected(i, "Cheque " + chequeIdentifier + " already used.");
+        }
+      }
+    }
+  }
+
+  private static TellerTransactionOutcome rejected(final int index, final String message) {
+    final TellerTransactionOutcome rejectedOutcome = new TellerTransactionOutcome();
+    rejectedOutcome.setIndex(index);
+    rejectedOutcome.setOutcome(TellerTransactionOutcome.Outcome.REJECTED.name());
+    rejectedOutcome.setMessage(message);
+    return rejectedOutcome;
+  }
+
+  private static TellerTransaction chequeTransaction(final ChequeBatchEntry chequeBatchEntry, final MICR micr,
+                                                     final String transactionDate) {
+    final Cheque cheque = new Cheque();
+    cheque.setMicr(micr);
+    cheque.setDrawee(chequeBatchEntry.getDrawee());
+    cheque.setDrawer(chequeBatchEntry.getDrawer());
+    cheque.setPayee(chequeBatchEntry.getPayee());
+    cheque.setAmount(chequeBatchEntry.getAmount());
+    cheque.setDateIssued(chequeBatchEntry.getDateIssued());
+    cheque.setOpenCheque(chequeBatchEntry.getOpenCheque());
+
+    final TellerTransaction tellerTransaction = new TellerTransaction();
+    tellerTransaction.setTransactionType(ServiceConstants.TX_CHEQUE);
+    tellerTransaction.setTransactionDate(transactionDate);
+    tellerTransaction.setCustomerIdentifier(chequeBatchEntry.getCustomerIdentifier());
+    tellerTransaction.setProductIdentifier(chequeBatchEntry.getProductIdentifier());
+    tellerTransaction.setProductCaseIdentifier(chequeBatchEntry.getProductCaseIdentifier());
+    tellerTransaction.setCustomerAccountIdentifier(chequeBatchEntry.getCustomerAccountIdentifier());
+    tellerTransaction.setClerk(UserContextHolder.checkedGetUser());
+    tellerTransaction.setAmount(chequeBatchEntry.getAmount());
+    tellerTransaction.setCheque(cheque);
+    return tellerTransaction;
+  }
+
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_OPERATION)
   @RequestMapping(
       value = "/transactions/{identifier}",
@@ -221,9 +472,13 @@ public class TellerOperationRestController {
             this.tellerOperationService.getTellerTransaction(tellerTransactionIdentifier)
                 .orElseThrow(() -> ServiceException.notFound("Transaction {0} not found.", tellerTransactionIdentifier));
 
+        if (!tellerTransaction.getState().equals(TellerTransaction.State.PENDING.name())) {
+          throw ServiceException.conflict("Transaction {0} is not pending.", tellerTransactionIdentifier);
+        }
+
         this.verifyAccounts(tellerTransaction);
-        this.verifyDepositTransaction(tellerTransaction, confirmTellerTransactionCommand);
-        this.verifyWithdrawalTransaction(tellerTransaction, confirmTellerTransactionCommand);
+        this.verifyDepositTransaction(tellerTransaction, confirmTellerTransactionCommand.chargesIncluded());
+        this.verifyWithdrawalTransaction(tellerTransaction, confirmTellerTransactionCommand.chargesIncluded());
 
         this.commandGateway.process(confirmTellerTransactionCommand);
         break;
@@ -253,6 +508,34 @@ public class TellerOperationRestController {
     );
   }
 
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.TELLER_OPERATION)
+  @RequestMapping(
+      value = "/transactions",
+      method = RequestMethod.GET,
+      params = "pageSize",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseBody
+  ResponseEntity<TellerTransactionPage> fetch(@PathVariable("tellerCode") final String tellerCode,
+                                              @RequestParam(value = "status", required = false) final String status,
+                                              @RequestParam(value = "pageSize") final Integer pageSize,
+                                              @RequestParam(value = "cursor", required = false) final String cursor,
+                                              @RequestParam(value = "dateRange", required = false) final String dateRange) {
+    this.verifyTeller(tellerCode);
+
+    if (pageSize < 1 || pageSize > MAXIMUM_PAGE_SIZE) {
+      throw ServiceException.badRequest("Page size must be between 1 and {0}.", MAXIMUM_PAGE_SIZE);
+    }
+
+    final DateRange dateRangeHolder = dateRange != null ? DateRange.fromIsoString(dateRange) : null;
+    return ResponseEntity.ok(
+        this.tellerOperationService.fetchTellerTransactionPage(tellerCode, status, pageSize, cursor,
+            dateRangeHolder != null ? dateRangeHolder.getStartDateTime() : null,
+            dateRangeHolder != null ? dateRangeHolder.getEndDateTime() : null)
+    );
+  }
+
   private Teller verifyTeller(final String tellerCode) {
     final Teller teller = this.tellerManagementService.findByIdentifier(tellerCode)
         .orElseThrow(() -> ServiceException.notFound("Teller {0} not found.", tellerCode));
@@ -268,46 +551,65 @@ public class TellerOperationRestController {
   }
 
   private void verifyAccounts(final TellerTransaction tellerTransaction) {
-    this.verifyAccount(tellerTransaction.getCustomerAccountIdentifier());
+    this.verifyAccounts(tellerTransaction, new HashSet<>(), new BatchLookups());
+  }
+
+  private void verifyAccounts(final TellerTransaction tellerTransaction, final Set<String> verifiedAccounts,
+                              final BatchLookups batchLookups) {
+    this.verifyAccount(tellerTransaction.getCustomerAccountIdentifier(), verifiedAccounts);
 
     if (tellerTransaction.getTargetAccountIdentifier() != null) {
-      this.verifyAccount(tellerTransaction.getTargetAccountIdentifier());
+      this.verifyAccount(tellerTransaction.getTargetAccountIdentifier(), verifiedAccounts);
     }
 
     if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
       final MICR micr = tellerTransaction.getCheque().getMicr();
-      if (this.organizationService.officeExists(micr.getBranchSortCode())) {
-        this.verifyAccount(micr.getAccountNumber());
+      if (batchLookups.officeExists(micr.getBranchSortCode())) {
+        this.verifyAccount(micr.getAccountNumber(), verifiedAccounts);
       }
     }
   }
 
+  private void verifyAccount(final String accountIdentifier, final Set<String> verifiedAccounts) {
+    if (!verifiedAccounts.contains(accountIdentifier)) {
+      this.verifyAccount(accountIdentifier);
+      verifiedAccounts.add(accountIdentifier);
+    }
+  }
+
   private void verifyAccount(final String accountIdentifier) {
-    final Account account = this.accountingService.findAccount(accountIdentifier)
+    final ResolvedAccount resolvedAccount = this.accountCache.find(accountIdentifier)
         .orElseThrow(() -> ServiceException.conflict("Account {0} not found.", accountIdentifier));
 
-    if (!account.getState().equals(Account.State.OPEN.name())) {
+    if (!resolvedAccount.getState().equals(Account.State.OPEN.name())) {
       throw ServiceException.conflict("Account {0} is not open.", accountIdentifier);
     }
   }
 
-  private void verifyWithdrawalTransaction(final TellerTransaction tellerTransaction,
-                                           final ConfirmTellerTransactionCommand confirmTellerTransactionCommand) {
+  private void verifyWithdrawalTransaction(final TellerTransaction tellerTransaction, final boolean chargesIncluded) {
+    this.verifyWithdrawalTransaction(tellerTransaction, chargesIncluded, null, new BatchLookups());
+  }
+
+  /**
+   * Checks the withdrawal against the balance left by the transactions accepted before it
+   * in the same batch, and takes its amount off that balance once it passed.
+   */
+  private void verifyWithdrawalTransaction(final TellerTransaction tellerTransaction, final boolean chargesIncluded,
+                                           final TellerTransactionCosts quotedCosts,
+                                           final BatchLookups batchLookups) {
     final String transactionType = tellerTransaction.getTransactionType();
 
     if (transactionType.equals(ServiceConstants.TX_ACCOUNT_TRANSFER)
         || transactionType.equals(ServiceConstants.TX_CASH_WITHDRAWAL)
         || transactionType.equals(ServiceConstants.TX_CLOSE_ACCOUNT)) {
 
-      final Account account = this.accountingService.findAccount(tellerTransaction.getCustomerAccountIdentifier())
-          .orElseThrow(() -> ServiceException.notFound("Customer account {0} not found.",
-              tellerTransaction.getCustomerAccountIdentifier()));
+      final String customerAccountIdentifier = tellerTransaction.getCustomerAccountIdentifier();
+      final BigDecimal currentBalance = batchLookups.balance(customerAccountIdentifier);
 
-      final BigDecimal currentBalance = BigDecimal.valueOf(account.getBalance());
-
-      final TellerTransactionCosts tellerTransactionCosts =
-          this.tellerTransactionProcessor.getCosts(tellerTransaction);
-      final BigDecimal transactionAmount = confirmTellerTransactionCommand.chargesIncluded()
+      final TellerTransactionCosts tellerTransactionCosts = quotedCosts != null
+          ? quotedCosts
+          : this.tellerTransactionProcessor.getQuotedCosts(tellerTransaction);
+      final BigDecimal transactionAmount = chargesIncluded
           ? tellerTransaction.getAmount()
           : tellerTransactionCosts.getTotalAmount();
 
@@ -320,44 +622,136 @@ public class TellerOperationRestController {
           throw ServiceException.conflict("Account has remaining balance.");
         }
       }
+
+      batchLookups.debit(customerAccountIdentifier, transactionAmount);
     }
   }
 
-  private void verifyDepositTransaction(final TellerTransaction tellerTransaction,
-                                        final ConfirmTellerTransactionCommand confirmTellerTransactionCommand) {
+  private void verifyDepositTransaction(final TellerTransaction tellerTransaction, final boolean chargesIncluded) {
+    this.verifyDepositTransaction(tellerTransaction, chargesIncluded, null, new BatchLookups());
+  }
+
+  private void verifyDepositTransaction(final TellerTransaction tellerTransaction, final boolean chargesIncluded,
+                                        final TellerTransactionCosts quotedCosts,
+                                        final BatchLookups batchLookups) {
     final String transactionType = tellerTransaction.getTransactionType();
 
     if (transactionType.equals(ServiceConstants.TX_CASH_DEPOSIT)
         || transactionType.equals(ServiceConstants.TX_OPEN_ACCOUNT)) {
 
-      final Account account = this.accountingService.findAccount(tellerTransaction.getCustomerAccountIdentifier())
-          .orElseThrow(() -> ServiceException.notFound("Customer account {0} not found.",
-              tellerTransaction.getCustomerAccountIdentifier()));
-
-      final BigDecimal newBalance = BigDecimal.valueOf(account.getBalance()).add(tellerTransaction.getAmount());
+      final BigDecimal newBalance =
+          batchLookups.balance(tellerTransaction.getCustomerAccountIdentifier()).add(tellerTransaction.getAmount());
 
-      final TellerTransactionCosts tellerTransactionCosts =
-          this.tellerTransactionProcessor.getCosts(tellerTransaction);
+      final TellerTransactionCosts tellerTransactionCosts = quotedCosts != null
+          ? quotedCosts
+          : this.tellerTransactionProcessor.getQuotedCosts(tellerTransaction);
 
-      if (!confirmTellerTransactionCommand.chargesIncluded() &&
+      if (!chargesIncluded &&
           tellerTransactionCosts.getTotalAmount().compareTo(newBalance) > 0) {
         throw ServiceException.conflict("Account has not enough balance.");
       }
     }
   }
 
-  private void verifyTellerTransaction(final Teller teller, final TellerTransaction tellerTransaction) {
+  /**
+   * Checks an item of a batch whose cheques were already looked up in the registry, see
+   * {@link #rejectUsedCheques(List, TellerTransactionOutcome[])}.
+   */
+  private void verifyTellerTransaction(final Teller teller, final TellerTransaction tellerTransaction,
+                                       final BatchLookups batchLookups) {
+    this.verifyCashdrawLimit(teller, tellerTransaction);
+    this.verifyMinimumBalance(tellerTransaction);
+    this.verifyChequeTransaction(tellerTransaction, batchLookups);
+  }
+
+  /**
+   * Checks a single transaction, its accounts included, issuing the remote lookups side by side.
+   * The first failing check is reported, see {@link #runChecks(List)}.
+   */
+  private void verifyTellerTransactionConcurrently(final Teller teller, final TellerTransaction tellerTransaction) {
+    final String transactionType = tellerTransaction.getTransactionType();
+
+    this.verifyCashdrawLimit(teller, tellerTransaction);
+    if (transactionType.equals(ServiceConstants.TX_CHEQUE)) {
+      this.verifyChequeDate(tellerTransaction);
+    }
+
+    final LinkedHashSet<String> accountIdentifiers = new LinkedHashSet<>();
+    accountIdentifiers.add(tellerTransaction.getCustomerAccountIdentifier());
+    if (tellerTransaction.getTargetAccountIdentifier() != null) {
+      accountIdentifiers.add(tellerTransaction.getTargetAccountIdentifier());
+    }
+
+    final ArrayList<Runnable> checks = new ArrayList<>();
+    accountIdentifiers.forEach(accountIdentifier -> checks.add(() -> this.verifyAccount(accountIdentifier)));
+
+    if (transactionType.equals(ServiceConstants.TX_OPEN_ACCOUNT)) {
+      checks.add(() -> this.verifyMinimumBalance(tellerTransaction));
+    }
+
+    if (transactionType.equals(ServiceConstants.TX_CHEQUE)) {
+      final MICR micr = tellerTransaction.getCheque().getMicr();
+      checks.add(() -> this.verifyChequeUnused(micr));
+      checks.add(() -> {
+        if (this.organizationService.officeExists(micr.getBranchSortCode())) {
+          if (!accountIdentifiers.contains(micr.getAccountNumber())) {
+            this.verifyAccount(micr.getAccountNumber());
+          }
+          this.verifyChequeCovered(tellerTransaction);
+        }
+      });
+    }
+
+    this.runChecks(checks);
+  }
+
+  /**
+   * Runs the checks on the remote call executor and returns as soon as one of them fails.
+   * Checks that have not started by then are skipped. Checks already running can not be
+   * interrupted; their remote calls complete in the background and their outcome is ignored.
+   */
+  private void runChecks(final List<Runnable> checks) {
+    final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+    final ArrayList<CompletableFuture<Void>> runningChecks = new ArrayList<>(checks.size());
+    checks.forEach(check -> runningChecks.add(
+        this.remoteCallExecutor.run(() -> {
+          if (!firstFailure.isDone()) {
+            check.run();
+          }
+        }).whenComplete((result, throwable) -> {
+          if (throwable != null) {
+            firstFailure.completeExceptionally(throwable);
+          }
+        })
+    ));
+
+    try {
+      CompletableFuture.anyOf(
+          CompletableFuture.allOf(runningChecks.toArray(new CompletableFuture[runningChecks.size()])), firstFailure
+      ).join();
+    } catch (final CompletionException cex) {
+      final Throwable cause = cex.getCause() instanceof CompletionException ? cex.getCause().getCause() : cex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw ServiceException.internalError("Could not verify transaction: {0}", String.valueOf(cause));
+    }
+  }
+
+  private void verifyCashdrawLimit(final Teller teller, final TellerTransaction tellerTransaction) {
     final String transactionType = tellerTransaction.getTransactionType();
-    final BigDecimal transactionAmount = tellerTransaction.getAmount();
 
     if (transactionType.equals(ServiceConstants.TX_CASH_WITHDRAWAL)
         || transactionType.equals(ServiceConstants.TX_CLOSE_ACCOUNT)) {
-      if (transactionAmount.compareTo(teller.getCashdrawLimit()) > 0) {
+      if (tellerTransaction.getAmount().compareTo(teller.getCashdrawLimit()) > 0) {
         throw ServiceException.conflict("Amount exceeds cash drawl limit.");
       }
     }
+  }
 
-    if (transactionType.equals(ServiceConstants.TX_OPEN_ACCOUNT)) {
+  private void verifyMinimumBalance(final TellerTransaction tellerTransaction) {
+    if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_OPEN_ACCOUNT)) {
+      final BigDecimal transactionAmount = tellerTransaction.getAmount();
       final ProductDefinition productDefinition =
           this.depositAccountManagementService.findProductDefinition(tellerTransaction.getProductIdentifier());
       if (productDefinition.getMinimumBalance() != null
@@ -370,32 +764,79 @@ public class TellerOperationRestController {
         }
       }
     }
-
-    this.verifyChequeTransaction(tellerTransaction);
   }
 
-  private void verifyChequeTransaction(final TellerTransaction tellerTransaction) {
+  private void verifyChequeTransaction(final TellerTransaction tellerTransaction, final BatchLookups batchLookups) {
     if (tellerTransaction.getTransactionType().equals(ServiceConstants.TX_CHEQUE)) {
-      final LocalDate dateIssued = DateConverter.dateFromIsoString(tellerTransaction.getCheque().getDateIssued());
-      final LocalDate sixMonth = LocalDate.now(Clock.systemUTC()).minusMonths(6);
-      if (dateIssued.isBefore(sixMonth)) {
-        throw ServiceException.conflict("Cheque is older than 6 months.");
-      }
+      this.verifyChequeDate(tellerTransaction);
 
       final MICR micr = tellerTransaction.getCheque().getMicr();
-      final String chequeIdentifier = MICRParser.toIdentifier(micr);
-      if (this.chequeService.chequeExists(chequeIdentifier)) {
-        throw ServiceException.conflict("Cheque {0} already used.", chequeIdentifier);
+      if (batchLookups.officeExists(micr.getBranchSortCode())) {
+        this.verifyChequeCovered(tellerTransaction, batchLookups);
       }
+    }
+  }
 
-      if (this.organizationService.officeExists(micr.getBranchSortCode())) {
-        this.accountingService.findAccount(micr.getAccountNumber()).ifPresent(account -> {
-          final BigDecimal balance = BigDecimal.valueOf(account.getBalance());
-          if (tellerTransaction.getAmount().compareTo(balance) > 0) {
-            throw ServiceException.conflict("Cheque not covered.");
-          }
-        });
+  private void verifyChequeDate(final TellerTransaction tellerTransaction) {
+    final LocalDate dateIssued = DateConverter.dateFromIsoString(tellerTransaction.getCheque().getDateIssued());
+    final LocalDate sixMonth = LocalDate.now(Clock.systemUTC()).minusMonths(6);
+    if (dateIssued.isBefore(sixMonth)) {
+      throw ServiceException.conflict("Cheque is older than 6 months.");
+    }
+  }
+
+  private void verifyChequeUnused(final MICR micr) {
+    final String chequeIdentifier = MICRParser.toIdentifier(micr);
+    if (this.chequeRegistry.mightBeUsed(micr) && this.chequeService.chequeExists(chequeIdentifier)) {
+      throw ServiceException.conflict("Cheque {0} already used.", chequeIdentifier);
+    }
+  }
+
+  private void verifyChequeCovered(final TellerTransaction tellerTransaction) {
+    this.accountingService.findAccount(tellerTransaction.getCheque().getMicr().getAccountNumber()).ifPresent(account -> {
+      final BigDecimal balance = BigDecimal.valueOf(account.getBalance());
+      if (tellerTransaction.getAmount().compareTo(balance) > 0) {
+        throw ServiceException.conflict("Cheque not covered.");
       }
+    });
+  }
+
+  /**
+   * Checks the cheque against the balance the drawee account has left after the cheques and withdrawals
+   * accepted before it in the same batch, and takes its amount off that balance once it passed.
+   */
+  private void verifyChequeCovered(final TellerTransaction tellerTransaction, final BatchLookups batchLookups) {
+    final String draweeAccountIdentifier = tellerTransaction.getCheque().getMicr().getAccountNumber();
+    if (tellerTransaction.getAmount().compareTo(batchLookups.balance(draweeAccountIdentifier)) > 0) {
+      throw ServiceException.conflict("Cheque not covered.");
+    }
+    batchLookups.debit(draweeAccountIdentifier, tellerTransaction.getAmount());
+  }
+
+  /**
+   * Remote lookups as seen by one request. Account balances are fetched once, less the debits still waiting
+   * in the outbox, and reduced by the withdrawals and cheques accepted so far. Whether a branch is one of our offices is asked once per branch.
+   */
+  private final class BatchLookups {
+
+    private final HashMap<String, BigDecimal> balances = new HashMap<>();
+    private final HashMap<String, Boolean> offices = new HashMap<>();
+
+    private BigDecimal balance(final String accountIdentifier) {
+      return this.balances.computeIfAbsent(accountIdentifier, key ->
+          TellerOperationRestController.this.accountingService.findAccount(key)
+              .map(account -> BigDecimal.valueOf(account.getBalance())
+                  .subtract(TellerOperationRestController.this.tellerTransactionOutbox.pendingDebits(key)))
+              .orElseThrow(() -> ServiceException.notFound("Customer account {0} not found.", key)));
+    }
+
+    private void debit(final String accountIdentifier, final BigDecimal amount) {
+      this.balances.merge(accountIdentifier, amount.negate(), BigDecimal::add);
+    }
+
+    private boolean officeExists(final String officeIdentifier) {
+      return this.offices.computeIfAbsent(officeIdentifier,
+          TellerOperationRestController.this.organizationService::officeExists);
     }
   }
 }
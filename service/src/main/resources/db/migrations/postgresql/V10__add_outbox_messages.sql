@@ -0,0 +1,35 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE tajet_outbox_messages (
+  id                     BIGSERIAL     NOT NULL,
+  transaction_identifier VARCHAR(32)   NOT NULL,
+  action                 VARCHAR(64)   NOT NULL,
+  payload                TEXT          NOT NULL,
+  idempotency_key        VARCHAR(128)  NOT NULL,
+  a_state                VARCHAR(32)   NOT NULL,
+  attempts               INTEGER       NOT NULL,
+  next_attempt_on        TIMESTAMP(3)  NOT NULL,
+  last_error             VARCHAR(2048) NULL,
+  created_on             TIMESTAMP(3)  NOT NULL,
+  CONSTRAINT tajet_outbox_messages_pk PRIMARY KEY (id),
+  CONSTRAINT tajet_outbox_messages_key_uq UNIQUE (idempotency_key));
+
+CREATE INDEX tajet_outbox_messages_tx_idx ON tajet_outbox_messages (transaction_identifier);
+CREATE INDEX tajet_outbox_messages_due_idx ON tajet_outbox_messages (a_state, next_attempt_on);
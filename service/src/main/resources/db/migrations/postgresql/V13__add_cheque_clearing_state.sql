@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+ALTER TABLE tajet_cheques ADD clearing_state VARCHAR(32) NULL;
+
+UPDATE tajet_cheques c SET clearing_state =
+  CASE t.a_state
+    WHEN 'CONFIRMED' THEN 'CLEARED'
+    WHEN 'CONFIRMING' THEN 'SUBMITTED'
+    ELSE 'PENDING'
+  END
+FROM tajet_teller_transactions t
+WHERE t.id = c.teller_transaction_id;
+
+ALTER TABLE tajet_cheques ALTER COLUMN clearing_state SET NOT NULL;
@@ -0,0 +1,32 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+ALTER TABLE tajet_teller_transactions ADD costs_total_amount NUMERIC(15, 5) NULL;
+
+CREATE TABLE tajet_teller_transaction_charges (
+  id                        BIGSERIAL      NOT NULL,
+  teller_transaction_id     BIGINT         NOT NULL,
+  charge_code               VARCHAR(256)   NOT NULL,
+  charge_name               VARCHAR(2048)  NULL,
+  income_account_identifier VARCHAR(34)    NULL,
+  amount                    NUMERIC(15, 5) NOT NULL,
+  CONSTRAINT tajet_teller_transaction_charges_pk PRIMARY KEY (id),
+  CONSTRAINT tajet_teller_transaction_charges_fk FOREIGN KEY (teller_transaction_id) REFERENCES tajet_teller_transactions (id));
+
+CREATE INDEX tajet_teller_transaction_charges_tx_idx ON tajet_teller_transaction_charges (teller_transaction_id);
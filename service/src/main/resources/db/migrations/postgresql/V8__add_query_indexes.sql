@@ -0,0 +1,29 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE INDEX tajet_teller_office_idx ON tajet_teller (office_identifier);
+CREATE INDEX tajet_teller_employee_idx ON tajet_teller (assigned_employee_identifier);
+
+CREATE INDEX tajet_teller_tx_teller_date_idx ON tajet_teller_transactions (teller_id, transaction_date, id);
+CREATE INDEX tajet_teller_tx_teller_state_date_idx ON tajet_teller_transactions (teller_id, a_state, transaction_date, id);
+CREATE INDEX tajet_teller_tx_teller_type_date_idx ON tajet_teller_transactions (teller_id, transaction_type, transaction_date);
+
+CREATE INDEX tajet_cheques_teller_tx_idx ON tajet_cheques (teller_transaction_id);
+
+CREATE INDEX tajet_teller_denominations_teller_created_idx ON tajet_teller_denominations (teller_id, created_on);